@@ -0,0 +1,79 @@
+package bench;
+
+import net.tribe7.reason.Check;
+import net.tribe7.reason.CheckException;
+import net.tribe7.reason.Validator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBench {
+
+  private final Object present = new Object();
+  private Object missing = null;
+  private boolean yes = true, no = false;
+
+  private final Validator validator = new Validator();
+
+  @State(Scope.Benchmark)
+  public static class BulkInput {
+    final int[] ids = new int[10_000_000];
+    final double[] amounts = new double[10_000_000];
+    final boolean[] flags = new boolean[10_000_000];
+
+    @Setup public void setup() {
+      Arrays.fill(ids, 42);
+      Arrays.fill(amounts, 0.5);
+      Arrays.fill(flags, true);
+    }
+  }
+
+  @Benchmark public int allInRangeInts(BulkInput in) { return Check.allInRange(in.ids, 0, 100).length; }
+  @Benchmark public int allInRangeDoubles(BulkInput in) { return Check.allInRange(in.amounts, 0, 1).length; }
+  @Benchmark public int indexOfFalse(BulkInput in) { return Check.indexOfFalse(in.flags); }
+
+  @Benchmark public boolean validatorPass() {
+    return validator.reset().notNull(present, Check.MISSING_DATA).isTrue(yes, null).inRange(1, 0, 2, null).isValid();
+  }
+
+  @Benchmark public boolean validatorFail() {
+    return validator.reset().notNull(missing, Check.MISSING_DATA).isTrue(no, null).inRange(3, 0, 2, null).isValid();
+  }
+
+  @Benchmark public String err() { return Check.err(Check.CONDITION_NOT_SATISFIED); }
+
+  @Benchmark public Object notNullPass() { return Check.notNull(present); }
+  @Benchmark public Object notNullPassEnum() { return Check.notNull(present, Check.MISSING_DATA); }
+  @Benchmark public Object notNullPassMessage() { return Check.notNull(present, "present"); }
+
+  @Benchmark public void isTruePass() { Check.isTrue(yes); }
+  @Benchmark public void isTruePassEnum() { Check.isTrue(yes, Check.CONDITION_NOT_SATISFIED); }
+
+  @Benchmark public void notNullFail(Blackhole bh) {
+    try { Check.notNull(missing, Check.MISSING_DATA); }
+    catch (IllegalStateException e) { bh.consume(e); }
+  }
+
+  @Benchmark public void notNullFailStackless(Blackhole bh) {
+    try { Check.notNull(missing, Check.MISSING_DATA, CheckException.Mode.STACKLESS); }
+    catch (IllegalStateException e) { bh.consume(e); }
+  }
+
+  @Benchmark public void notNullFailShared(Blackhole bh) {
+    try { Check.notNull(missing, Check.MISSING_DATA, CheckException.Mode.SHARED); }
+    catch (IllegalStateException e) { bh.consume(e); }
+  }
+
+  @Benchmark public void isTrueFail(Blackhole bh) {
+    try { Check.isTrue(no, Check.CONDITION_NOT_SATISFIED); }
+    catch (IllegalStateException e) { bh.consume(e); }
+  }
+}
@@ -0,0 +1,33 @@
+package bench;
+
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyCounters;
+import net.tribe7.reason.ReplyMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBench {
+
+  @Param({"false", "true"})
+  public boolean counters;
+
+  private final Integer data = 42;
+  private final ReplyCounters listener = new ReplyCounters();
+
+  @Setup public void setup() {
+    if (counters) { ReplyMetrics.register(listener); }
+  }
+
+  @TearDown public void tearDown() { ReplyMetrics.unregister(listener); }
+
+  @Benchmark @Threads(4) public Reply<Integer> newOk() { return new Reply<Integer>().ok(data); }
+  @Benchmark @Threads(4) public Reply<Integer> newBadEnum() { return new Reply<Integer>().bad(Check.MISSING_DATA); }
+}
@@ -0,0 +1,32 @@
+package bench;
+
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplyBench {
+
+  private final Integer data = 42;
+  private final IllegalStateException error = new IllegalStateException("oops");
+  private final Reply<Integer> okReply = new Reply<Integer>().ok(data);
+  private final Reply<Integer> badReply = new Reply<Integer>().bad(error).warning("deprecated");
+
+  @Benchmark public Reply<Integer> newOk() { return new Reply<Integer>().ok(data); }
+  @Benchmark public Reply<Integer> newBad() { return new Reply<Integer>().bad(error); }
+  @Benchmark public Reply<Integer> newBadEnum() { return new Reply<Integer>().bad(Check.MISSING_DATA); }
+  @Benchmark public Reply<Integer> newBadMessage() { return new Reply<Integer>().bad(error, "custom"); }
+  @Benchmark public Reply<Integer> newWarning() { return new Reply<Integer>().ok(data).warning("deprecated"); }
+  @Benchmark public Reply<Boolean> sharedOk() { return Reply.okOf(Boolean.TRUE); }
+  @Benchmark public Reply<Integer> sharedBadEnum() { return Reply.badOf(Check.MISSING_DATA); }
+
+  @Benchmark public String okToString() { return okReply.toString(); }
+  @Benchmark public String badToString() { return badReply.toString(); }
+}
@@ -0,0 +1,39 @@
+package bench;
+
+import net.tribe7.reason.Check;
+import net.tribe7.reason.ErrorPolicy;
+import net.tribe7.reason.Reply;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Prints the retained heap footprint of common reply shapes.
+ * Run with {@code gradle jmhFootprint}.
+ */
+public class ReplyFootprint {
+
+  private static void print(String label, Object o) {
+    GraphLayout shared = GraphLayout.parseInstance(Check.class, Check.values()); // shared by all replies
+    System.out.printf("%-28s %6d bytes%n", label, GraphLayout.parseInstance(o).subtract(shared).totalSize());
+  }
+
+  public static void main(String[] args) {
+    System.out.println(ClassLayout.parseClass(Reply.class).toPrintable());
+    print("new", new Reply<Integer>());
+    print("ok", new Reply<Integer>().ok(1));
+    print("ok, 1 warning", new Reply<Integer>().ok(1).warning("w0"));
+    print("ok, 1 coded warning", new Reply<Integer>().ok(1).warn(Check.GENERAL_ERROR));
+    print("ok, 3 coded warnings", new Reply<Integer>().ok(1)
+        .warn(Check.GENERAL_ERROR).warn(Check.MISSING_DATA).warn(Check.OUT_OF_RANGE));
+    print("ok, 3 warnings", new Reply<Integer>().ok(1).warning("w0").warning("w1").warning("w2"));
+    Reply<Integer> many = new Reply<Integer>().ok(1);
+    for (int i = 0; i < 16; i++) { many.warning("w" + i); }
+    print("ok, 16 warnings", many);
+    Exception error = new IllegalStateException("oops", new java.io.IOException("cause"));
+    error.getStackTrace();
+    print("bad, retained throwable", new Reply<Integer>().bad(error));
+    Reply.setErrorPolicy(ErrorPolicy.compact(8));
+    print("bad, compact throwable", new Reply<Integer>().bad(error));
+    Reply.setErrorPolicy(null);
+  }
+}
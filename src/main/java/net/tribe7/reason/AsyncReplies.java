@@ -0,0 +1,169 @@
+package net.tribe7.reason;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous execution and aggregation of reply-returning operations.
+ * Failures of any kind are reported as failed replies, never as failed stages.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+final class AsyncReplies {
+
+  private AsyncReplies() {}
+
+  /** Upper bound of operations waiting for a thread of the Java 8 pool. */
+  static final int QUEUE_CAPACITY = 4096;
+
+  private static final class DefaultExecutor {
+    static final Executor virtual = virtual();
+    static final Executor instance = virtual != null ? virtual : pool();
+
+    /** @return a virtual thread per task executor on Java 21 and later, {@code null} otherwise. */
+    private static Executor virtual() {
+      try {
+        Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (ExecutorService) m.invoke(null);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        return null;
+      }
+    }
+
+    /**
+     * @return a pool of one daemon thread per CPU, which rejects operations once
+     * {@link #QUEUE_CAPACITY} of them are waiting.
+     */
+    private static Executor pool() {
+      int threads = Runtime.getRuntime().availableProcessors();
+      ThreadPoolExecutor p = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(QUEUE_CAPACITY), daemons("reply-async-"));
+      p.allowCoreThreadTimeOut(true);
+      return p;
+    }
+  }
+
+  private static ThreadFactory daemons(String prefix) {
+    AtomicInteger n = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, prefix + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  static Executor defaultExecutor() { return DefaultExecutor.instance; }
+
+  /**
+   * @return an executor for long-lived tasks which must all run at once: virtual threads
+   * on Java 21 and later, or a new daemon thread per task otherwise.
+   */
+  static Executor taskExecutor() {
+    if (DefaultExecutor.virtual != null) {
+      return DefaultExecutor.virtual;
+    }
+    ThreadFactory f = daemons("reply-task-");
+    return r -> f.newThread(r).start();
+  }
+
+  static <T> CompletionStage<Reply<T>> async(Supplier<Reply<T>> op, Executor executor) {
+    CompletableFuture<Reply<T>> f = new CompletableFuture<>();
+    try {
+      Check.notNull(executor).execute(() -> f.complete(run(op)));
+    } catch (Throwable e) {
+      f.complete(new Reply<T>().bad(e));
+    }
+    return f;
+  }
+
+  private static <T> Reply<T> run(Supplier<Reply<T>> op) {
+    try {
+      return settle(op.get(), null);
+    } catch (Throwable e) {
+      return new Reply<T>().bad(e);
+    }
+  }
+
+  private static <T> Reply<T> settle(Reply<T> r, Throwable t) {
+    if (t != null) {
+      return new Reply<T>().bad(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+    }
+    return r == null ? Reply.badOf(Check.MISSING_DATA) : r;
+  }
+
+  static <T> CompletionStage<Reply<List<T>>> allOf(Collection<? extends CompletionStage<Reply<T>>> stages) {
+    return gather(stages, replies -> {
+      Reply<List<T>> out = new Reply<>();
+      List<T> data = new ArrayList<>(replies.size());
+      Reply<T> bad = null;
+      for (Reply<T> r : replies) {
+        out.addWarnings(r.copyWarnings());
+        if (bad == null && !r.isOk()) { bad = r; }
+        data.add(r.getData());
+      }
+      return bad == null
+          ? out.ok(Collections.unmodifiableList(data))
+          : out.bad(bad.getError(), bad.getMessage());
+    }, null);
+  }
+
+  static <T> CompletionStage<Reply<T>> anyOk(Collection<? extends CompletionStage<Reply<T>>> stages) {
+    return gather(stages, replies -> {
+      for (Reply<T> r : replies) {
+        if (!r.isOk()) { return r; }
+      }
+      return Reply.badOf(Check.MISSING_DATA);
+    }, Reply::isOk);
+  }
+
+  /**
+   * Wait for all stages to settle, then combine their replies in input order.
+   * If {@code early} is given, complete with the first reply matching it instead.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T, R> CompletionStage<Reply<R>> gather(
+      Collection<? extends CompletionStage<Reply<T>>> stages,
+      Function<List<Reply<T>>, Reply<R>> combine, Predicate<Reply<T>> early) {
+    List<CompletionStage<Reply<T>>> in = new ArrayList<>(Check.notNull(stages));
+    CompletableFuture<Reply<R>> out = new CompletableFuture<>();
+    Reply<T>[] replies = (Reply<T>[]) new Reply<?>[in.size()];
+    AtomicInteger remaining = new AtomicInteger(in.size());
+    if (in.isEmpty()) {
+      out.complete(combine.apply(Collections.emptyList()));
+    }
+    for (int i = 0; i < in.size(); i++) {
+      int k = i;
+      in.get(i).whenComplete((r, t) -> {
+        Reply<T> s = settle(r, t);
+        replies[k] = s;
+        if (early != null && early.test(s)) {
+          out.complete((Reply<R>) s);
+        }
+        if (remaining.decrementAndGet() == 0 && !out.isDone()) {
+          List<Reply<T>> all = new ArrayList<>(replies.length);
+          Collections.addAll(all, replies);
+          out.complete(combine.apply(all));
+        }
+      });
+    }
+    return out;
+  }
+}
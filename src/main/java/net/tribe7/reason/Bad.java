@@ -0,0 +1,53 @@
+package net.tribe7.reason;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A failed outcome. On Java 17 and later, this class is a record.
+ *
+ * @param <T> the target type expected from a successful reply.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class Bad<T> implements Outcome<T> {
+
+  private final Object error;
+  private final String message;
+  private final List<String> warnings;
+
+  /**
+   * @param error    the error data. May be {@code null}.
+   * @param message  the error message. May be {@code null}, which defaults to {@link Reply#MESSAGE_DEFAULT}.
+   * @param warnings the warnings issued. May be {@code null}, which defaults to no warnings.
+   */
+  public Bad(Object error, String message, List<String> warnings) {
+    this.error = error;
+    this.message = Reply.messageOf(message);
+    this.warnings = Outcomes.copyOf(warnings);
+  }
+
+  /** @return the error data, if any. */
+  public Object error() { return error; }
+
+  /** @return the error message. */
+  public String message() { return message; }
+
+  @Override public List<String> warnings() { return warnings; }
+
+  @Override public Outcomes.Kind kind() { return Outcomes.Kind.BAD; }
+
+  @Override public boolean equals(Object o) {
+    if (!(o instanceof Bad)) {
+      return false;
+    }
+    Bad<?> b = (Bad<?>) o;
+    return Objects.equals(error, b.error) && message.equals(b.message) && warnings.equals(b.warnings);
+  }
+
+  @Override public int hashCode() { return Objects.hash(error, message, warnings); }
+
+  @Override public String toString() {
+    return "Bad[error=" + error + ", message=" + message + ", warnings=" + warnings + "]";
+  }
+}
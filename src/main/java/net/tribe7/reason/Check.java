@@ -1,8 +1,18 @@
 package net.tribe7.reason;
 
+import java.util.function.Supplier;
+
 /**
  * Basic assertions, with optional enum support for constant root cause definitions.
  *
+ * Failed assertions throw a {@link CheckException}, created according to the
+ * {@link CheckException.Mode} set in {@link #setFailureMode(CheckException.Mode)},
+ * or the one given at the call site.
+ *
+ * The ids of these constants are their ordinals, see {@link ErrorCodes#id(Enum)}, and are
+ * written by {@link ReplyCodec}. New constants must only be appended, never inserted,
+ * reordered or removed, so that encoded replies keep decoding to the same errors.
+ *
  * @author Jesus Zazueta
  * @since 2.0.1
  */
@@ -22,7 +32,39 @@ public enum Check {
   /**
    * An error triggered due to missing arguments into the input routine.
    */
-  MISSING_DATA;
+  MISSING_DATA,
+
+  /**
+   * An error triggered due to a numeric argument outside of its expected range.
+   */
+  OUT_OF_RANGE,
+
+  /**
+   * An error triggered due to an index argument outside of the bounds of a sequence.
+   */
+  INDEX_OUT_OF_BOUNDS,
+
+  /**
+   * An error triggered due to a request rejected by a concurrency limit, see {@link ReplyLimiter}.
+   */
+  LIMIT_EXCEEDED;
+
+  /** Bulk checks reduce each block of values branch-free, so the JIT can vectorize the loops. */
+  private static final int BLOCK = 1024;
+
+  private static volatile CheckException.Mode failureMode = CheckException.Mode.TRACE;
+
+  /**
+   * Set the default failure mode for all assertions.
+   *
+   * @param mode the failure mode. May be {@code null}, which defaults to {@link CheckException.Mode#TRACE}.
+   */
+  public static void setFailureMode(CheckException.Mode mode) {
+    failureMode = mode == null ? CheckException.Mode.TRACE : mode;
+  }
+
+  /** @return the default failure mode for all assertions. */
+  public static CheckException.Mode getFailureMode() { return failureMode; }
 
   /**
    * Encode a string representation for an error constant.
@@ -30,13 +72,10 @@ public enum Check {
    * @param e the error constant. May be {@code null},
    *          which defaults to {@link #GENERAL_ERROR}.
    * @return the error constant in lowercase format, with underscores {@code '_'}
-   * replaced by dots {@code '.'}.
+   * replaced by dots {@code '.'}. Codes are computed once per constant, see {@link ErrorCodes}.
    */
   public static String err(Enum<?> e) {
-    if (e == null) {
-      e = GENERAL_ERROR;
-    }
-    return e.toString().toLowerCase().replace("_", ".");
+    return ErrorCodes.code(e);
   }
 
   /**
@@ -49,7 +88,7 @@ public enum Check {
    *                               with {@link #MISSING_DATA} as the root cause.
    */
   public static <T> T notNull(T test) {
-    return notNull(test, err(MISSING_DATA));
+    return notNull(test, MISSING_DATA);
   }
 
   /**
@@ -64,7 +103,30 @@ public enum Check {
    *                               or {@link #MISSING_DATA} if {@code errorEnum} is {@code null}.
    */
   public static <T> T notNull(T test, Enum<?> errorEnum) {
-    return notNull(test, err(errorEnum == null ? MISSING_DATA : errorEnum));
+    if (test == null) {
+      throw CheckException.of(errorEnum == null ? MISSING_DATA : errorEnum, failureMode);
+    }
+    return test;
+  }
+
+  /**
+   * Non-null argument check, with support for a root cause constant and a failure mode.
+   *
+   * @param test      the argument to check. Must not be {@code null}.
+   * @param errorEnum the root cause error constant.
+   *                  May be {@code null}, which defaults to {@link #MISSING_DATA}
+   * @param mode      the failure mode for this call site.
+   *                  May be {@code null}, which defaults to {@link CheckException.Mode#TRACE}.
+   * @param <T>       the type of the argument to check.
+   * @return the argument itself.
+   * @throws IllegalStateException if {@code test} is {@code null}, with {@code errorEnum} as the root cause,
+   *                               or {@link #MISSING_DATA} if {@code errorEnum} is {@code null}.
+   */
+  public static <T> T notNull(T test, Enum<?> errorEnum, CheckException.Mode mode) {
+    if (test == null) {
+      throw CheckException.of(errorEnum == null ? MISSING_DATA : errorEnum, mode);
+    }
+    return test;
   }
 
   /**
@@ -81,9 +143,9 @@ public enum Check {
   public static <T> T notNull(T test, String message) {
     if (test == null) {
       if (message != null && message.trim().length() > 0) {
-        throw new IllegalStateException(message);
+        throw CheckException.of(null, message, failureMode);
       }
-      throw new IllegalStateException(err(MISSING_DATA));
+      throw CheckException.of(MISSING_DATA, failureMode);
     }
     return test;
   }
@@ -110,7 +172,26 @@ public enum Check {
    *                               as the root cause message, or {@link #CONDITION_NOT_SATISFIED} if {@code whenFalse} is {@code null}.
    */
   public static void isTrue(boolean condition, Enum<?> whenFalse) {
-    isTrue(condition, err(whenFalse == null ? CONDITION_NOT_SATISFIED : whenFalse));
+    if (!condition) {
+      throw CheckException.of(whenFalse == null ? CONDITION_NOT_SATISFIED : whenFalse, failureMode);
+    }
+  }
+
+  /**
+   * Basic truth check, with error constant support and a failure mode.
+   *
+   * @param condition the condition to test.
+   * @param whenFalse a root cause error constant.
+   *                  May be {@code null}, which defaults to {@link #CONDITION_NOT_SATISFIED}.
+   * @param mode      the failure mode for this call site.
+   *                  May be {@code null}, which defaults to {@link CheckException.Mode#TRACE}.
+   * @throws IllegalStateException if {@code condition} is {@code false}, with {@code whenFalse}
+   *                               as the root cause message, or {@link #CONDITION_NOT_SATISFIED} if {@code whenFalse} is {@code null}.
+   */
+  public static void isTrue(boolean condition, Enum<?> whenFalse, CheckException.Mode mode) {
+    if (!condition) {
+      throw CheckException.of(whenFalse == null ? CONDITION_NOT_SATISFIED : whenFalse, mode);
+    }
   }
 
   /**
@@ -125,9 +206,545 @@ public enum Check {
    */
   public static void isTrue(boolean condition, String message) {
     if (!condition) {
-      throw new IllegalStateException(
-          message == null ? err(CONDITION_NOT_SATISFIED) : message
-      );
+      throw message == null
+          ? CheckException.of(CONDITION_NOT_SATISFIED, failureMode)
+          : CheckException.of(null, message, failureMode);
+    }
+  }
+
+  /**
+   * Non-null argument check, with a root cause message computed only if the check fails.
+   *
+   * @param test    the argument to check. Must not be {@code null}.
+   * @param message the free-form root cause message supplier.
+   *                May be {@code null}, or supply a {@code null} or blank message,
+   *                which defaults to {@link #MISSING_DATA}.
+   * @param <T>     the type of the argument to check.
+   * @return the argument itself.
+   * @throws IllegalStateException if {@code test} is {@code null}, with the supplied message as the root cause,
+   *                               and {@link #MISSING_DATA} as the error constant.
+   */
+  public static <T> T notNull(T test, Supplier<String> message) {
+    if (test == null) {
+      throw fail(MISSING_DATA, message == null ? null : message.get());
+    }
+    return test;
+  }
+
+  /**
+   * Non-null argument check, with a root cause message formatted only if the check fails.
+   *
+   * @param test   the argument to check. Must not be {@code null}.
+   * @param format a {@link String#format(String, Object...)} message template.
+   *               May be {@code null}, which defaults to {@link #MISSING_DATA}.
+   * @param arg    the template argument.
+   * @param <T>    the type of the argument to check.
+   * @return the argument itself.
+   * @throws IllegalStateException if {@code test} is {@code null}, with the formatted message as the root cause,
+   *                               and {@link #MISSING_DATA} as the error constant.
+   */
+  public static <T> T notNull(T test, String format, Object arg) {
+    if (test == null) {
+      throw fail(MISSING_DATA, format, arg);
+    }
+    return test;
+  }
+
+  /**
+   * Non-null argument check, with a root cause message formatted only if the check fails.
+   *
+   * @param test   the argument to check. Must not be {@code null}.
+   * @param format a {@link String#format(String, Object...)} message template.
+   *               May be {@code null}, which defaults to {@link #MISSING_DATA}.
+   * @param arg0   the first template argument.
+   * @param arg1   the second template argument.
+   * @param <T>    the type of the argument to check.
+   * @return the argument itself.
+   * @throws IllegalStateException if {@code test} is {@code null}, with the formatted message as the root cause,
+   *                               and {@link #MISSING_DATA} as the error constant.
+   */
+  public static <T> T notNull(T test, String format, Object arg0, Object arg1) {
+    if (test == null) {
+      throw fail(MISSING_DATA, format, arg0, arg1);
+    }
+    return test;
+  }
+
+  /**
+   * Non-null argument check, with a root cause message formatted only if the check fails.
+   *
+   * @param test   the argument to check. Must not be {@code null}.
+   * @param format a {@link String#format(String, Object...)} message template.
+   *               May be {@code null}, which defaults to {@link #MISSING_DATA}.
+   * @param args   the template arguments.
+   * @param <T>    the type of the argument to check.
+   * @return the argument itself.
+   * @throws IllegalStateException if {@code test} is {@code null}, with the formatted message as the root cause,
+   *                               and {@link #MISSING_DATA} as the error constant.
+   */
+  public static <T> T notNull(T test, String format, Object... args) {
+    if (test == null) {
+      throw fail(MISSING_DATA, format, args);
+    }
+    return test;
+  }
+
+  /**
+   * Basic truth check, with a root cause message computed only if the check fails.
+   *
+   * @param condition the condition to test.
+   * @param message   the free-form root cause message supplier. May be {@code null},
+   *                  or supply a {@code null} or blank message, which defaults to
+   *                  {@link #CONDITION_NOT_SATISFIED}.
+   * @throws IllegalStateException if {@code condition} is {@code false}, with the supplied message
+   *                               as the root cause message, and {@link #CONDITION_NOT_SATISFIED}
+   *                               as the error constant.
+   */
+  public static void isTrue(boolean condition, Supplier<String> message) {
+    if (!condition) {
+      throw fail(CONDITION_NOT_SATISFIED, message == null ? null : message.get());
+    }
+  }
+
+  /**
+   * Basic truth check, with a root cause message formatted only if the check fails.
+   *
+   * @param condition the condition to test.
+   * @param format    a {@link String#format(String, Object...)} message template.
+   *                  May be {@code null}, which defaults to {@link #CONDITION_NOT_SATISFIED}.
+   * @param arg       the template argument.
+   * @throws IllegalStateException if {@code condition} is {@code false}, with the formatted message
+   *                               as the root cause message, and {@link #CONDITION_NOT_SATISFIED}
+   *                               as the error constant.
+   */
+  public static void isTrue(boolean condition, String format, Object arg) {
+    if (!condition) {
+      throw fail(CONDITION_NOT_SATISFIED, format, arg);
+    }
+  }
+
+  /**
+   * Basic truth check, with a root cause message formatted only if the check fails.
+   *
+   * @param condition the condition to test.
+   * @param format    a {@link String#format(String, Object...)} message template.
+   *                  May be {@code null}, which defaults to {@link #CONDITION_NOT_SATISFIED}.
+   * @param arg0      the first template argument.
+   * @param arg1      the second template argument.
+   * @throws IllegalStateException if {@code condition} is {@code false}, with the formatted message
+   *                               as the root cause message, and {@link #CONDITION_NOT_SATISFIED}
+   *                               as the error constant.
+   */
+  public static void isTrue(boolean condition, String format, Object arg0, Object arg1) {
+    if (!condition) {
+      throw fail(CONDITION_NOT_SATISFIED, format, arg0, arg1);
+    }
+  }
+
+  /**
+   * Basic truth check, with a root cause message formatted only if the check fails.
+   *
+   * @param condition the condition to test.
+   * @param format    a {@link String#format(String, Object...)} message template.
+   *                  May be {@code null}, which defaults to {@link #CONDITION_NOT_SATISFIED}.
+   * @param args      the template arguments.
+   * @throws IllegalStateException if {@code condition} is {@code false}, with the formatted message
+   *                               as the root cause message, and {@link #CONDITION_NOT_SATISFIED}
+   *                               as the error constant.
+   */
+  public static void isTrue(boolean condition, String format, Object... args) {
+    if (!condition) {
+      throw fail(CONDITION_NOT_SATISFIED, format, args);
+    }
+  }
+
+  /**
+   * Inclusive range check.
+   *
+   * @param value the value to check.
+   * @param lo    the lowest allowed value.
+   * @param hi    the highest allowed value.
+   * @return the value itself.
+   * @throws IllegalStateException if {@code value} is not within {@code [lo, hi]},
+   *                               with {@link #OUT_OF_RANGE} as the root cause.
+   */
+  public static int inRange(int value, int lo, int hi) {
+    if (value < lo || value > hi) {
+      throw outOfRange(value, lo, hi);
     }
+    return value;
+  }
+
+  /**
+   * Inclusive range check.
+   *
+   * @param value the value to check.
+   * @param lo    the lowest allowed value.
+   * @param hi    the highest allowed value.
+   * @return the value itself.
+   * @throws IllegalStateException if {@code value} is not within {@code [lo, hi]},
+   *                               with {@link #OUT_OF_RANGE} as the root cause.
+   */
+  public static long inRange(long value, long lo, long hi) {
+    if (value < lo || value > hi) {
+      throw outOfRange(value, lo, hi);
+    }
+    return value;
+  }
+
+  /**
+   * Inclusive range check.
+   *
+   * @param value the value to check.
+   * @param lo    the lowest allowed value.
+   * @param hi    the highest allowed value.
+   * @return the value itself.
+   * @throws IllegalStateException if {@code value} is not within {@code [lo, hi]}, or is {@code NaN},
+   *                               with {@link #OUT_OF_RANGE} as the root cause.
+   */
+  public static double inRange(double value, double lo, double hi) {
+    if (!(value >= lo && value <= hi)) {
+      throw outOfRange(value, lo, hi);
+    }
+    return value;
+  }
+
+  /**
+   * Non-negative value check.
+   *
+   * @param value the value to check.
+   * @return the value itself.
+   * @throws IllegalStateException if {@code value} is negative,
+   *                               with {@link #OUT_OF_RANGE} as the root cause.
+   */
+  public static int nonNegative(int value) {
+    if (value < 0) {
+      throw outOfRange(value, 0, Integer.MAX_VALUE);
+    }
+    return value;
+  }
+
+  /**
+   * Non-negative value check.
+   *
+   * @param value the value to check.
+   * @return the value itself.
+   * @throws IllegalStateException if {@code value} is negative,
+   *                               with {@link #OUT_OF_RANGE} as the root cause.
+   */
+  public static long nonNegative(long value) {
+    if (value < 0) {
+      throw outOfRange(value, 0, Long.MAX_VALUE);
+    }
+    return value;
+  }
+
+  /**
+   * Non-negative value check.
+   *
+   * @param value the value to check.
+   * @return the value itself.
+   * @throws IllegalStateException if {@code value} is negative, or is {@code NaN},
+   *                               with {@link #OUT_OF_RANGE} as the root cause.
+   */
+  public static double nonNegative(double value) {
+    if (!(value >= 0)) {
+      throw outOfRange(value, 0, Double.POSITIVE_INFINITY);
+    }
+    return value;
+  }
+
+  /**
+   * Sequence index check.
+   *
+   * @param index the index to check.
+   * @param size  the size of the sequence.
+   * @return the index itself.
+   * @throws IllegalStateException if {@code index} is not within {@code [0, size)},
+   *                               with {@link #INDEX_OUT_OF_BOUNDS} as the root cause.
+   */
+  public static int index(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw indexOutOfBounds(index, size);
+    }
+    return index;
+  }
+
+  /**
+   * Bulk non-null check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @return the index of the first {@code null} value, or {@code -1} if none.
+   */
+  public static int indexOfNull(Object[] values) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Bulk non-null check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @return the position of the first {@code null} value, in iteration order, or {@code -1} if none.
+   */
+  public static int indexOfNull(Iterable<?> values) {
+    int i = 0;
+    for (Object v : values) {
+      if (v == null) {
+        return i;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  /**
+   * Bulk truth check.
+   *
+   * @param conditions the conditions to check. Must not be {@code null}.
+   * @return the index of the first {@code false} condition, or {@code -1} if none.
+   */
+  public static int indexOfFalse(boolean[] conditions) {
+    for (int from = 0; from < conditions.length; from += BLOCK) {
+      int to = Math.min(from + BLOCK, conditions.length);
+      boolean all = true;
+      for (int i = from; i < to; i++) {
+        all &= conditions[i];
+      }
+      if (!all) {
+        for (int i = from; i < to; i++) {
+          if (!conditions[i]) {
+            return i;
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Bulk numeric range check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param lo     the lower bound, inclusive.
+   * @param hi     the upper bound, inclusive.
+   * @return the index of the first value not within {@code [lo, hi]}, or {@code -1} if none.
+   */
+  public static int indexOutOfRange(int[] values, int lo, int hi) {
+    for (int from = 0; from < values.length; from += BLOCK) {
+      int to = Math.min(from + BLOCK, values.length);
+      int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, values[i]);
+        max = Math.max(max, values[i]);
+      }
+      if (min < lo || max > hi) {
+        for (int i = from; i < to; i++) {
+          if (values[i] < lo || values[i] > hi) {
+            return i;
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Bulk numeric range check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param lo     the lower bound, inclusive.
+   * @param hi     the upper bound, inclusive.
+   * @return the index of the first value not within {@code [lo, hi]}, or {@code -1} if none.
+   */
+  public static int indexOutOfRange(long[] values, long lo, long hi) {
+    for (int from = 0; from < values.length; from += BLOCK) {
+      int to = Math.min(from + BLOCK, values.length);
+      long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, values[i]);
+        max = Math.max(max, values[i]);
+      }
+      if (min < lo || max > hi) {
+        for (int i = from; i < to; i++) {
+          if (values[i] < lo || values[i] > hi) {
+            return i;
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Bulk numeric range check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param lo     the lower bound, inclusive.
+   * @param hi     the upper bound, inclusive.
+   * @return the index of the first value not within {@code [lo, hi]}, or {@code NaN},
+   * or {@code -1} if none.
+   */
+  public static int indexOutOfRange(double[] values, double lo, double hi) {
+    for (int from = 0; from < values.length; from += BLOCK) {
+      int to = Math.min(from + BLOCK, values.length);
+      boolean out = false;
+      for (int i = from; i < to; i++) {
+        double v = values[i];
+        out |= !(v >= lo) | !(v <= hi);
+      }
+      if (out) {
+        for (int i = from; i < to; i++) {
+          if (!(values[i] >= lo && values[i] <= hi)) {
+            return i;
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Bulk non-null check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param <T>    the type of the values to check.
+   * @return the values themselves.
+   * @throws IllegalStateException if any value is {@code null}, with {@link #MISSING_DATA}
+   *                               as the root cause, and the value's index in the message.
+   */
+  public static <T> T[] allNotNull(T[] values) {
+    int i = indexOfNull(notNull(values));
+    if (i >= 0) {
+      throw detailed(MISSING_DATA, "index " + i);
+    }
+    return values;
+  }
+
+  /**
+   * Bulk non-null check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param <C>    the type of the values to check.
+   * @return the values themselves.
+   * @throws IllegalStateException if any value is {@code null}, with {@link #MISSING_DATA}
+   *                               as the root cause, and the value's position in the message.
+   */
+  public static <C extends Iterable<?>> C allNotNull(C values) {
+    int i = indexOfNull(notNull(values));
+    if (i >= 0) {
+      throw detailed(MISSING_DATA, "index " + i);
+    }
+    return values;
+  }
+
+  /**
+   * Bulk truth check.
+   *
+   * @param conditions the conditions to check. Must not be {@code null}.
+   * @throws IllegalStateException if any condition is {@code false}, with
+   *                               {@link #CONDITION_NOT_SATISFIED} as the root cause,
+   *                               and the condition's index in the message.
+   */
+  public static void allTrue(boolean[] conditions) {
+    int i = indexOfFalse(notNull(conditions));
+    if (i >= 0) {
+      throw detailed(CONDITION_NOT_SATISFIED, "index " + i);
+    }
+  }
+
+  /**
+   * Bulk numeric range check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param lo     the lower bound, inclusive.
+   * @param hi     the upper bound, inclusive.
+   * @return the values themselves.
+   * @throws IllegalStateException if any value is not within {@code [lo, hi]},
+   *                               with {@link #OUT_OF_RANGE} as the root cause,
+   *                               and the value's index in the message.
+   */
+  public static int[] allInRange(int[] values, int lo, int hi) {
+    int i = indexOutOfRange(notNull(values), lo, hi);
+    if (i >= 0) {
+      throw outOfRange(i, values[i], lo, hi);
+    }
+    return values;
+  }
+
+  /**
+   * Bulk numeric range check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param lo     the lower bound, inclusive.
+   * @param hi     the upper bound, inclusive.
+   * @return the values themselves.
+   * @throws IllegalStateException if any value is not within {@code [lo, hi]},
+   *                               with {@link #OUT_OF_RANGE} as the root cause,
+   *                               and the value's index in the message.
+   */
+  public static long[] allInRange(long[] values, long lo, long hi) {
+    int i = indexOutOfRange(notNull(values), lo, hi);
+    if (i >= 0) {
+      throw outOfRange(i, values[i], lo, hi);
+    }
+    return values;
+  }
+
+  /**
+   * Bulk numeric range check.
+   *
+   * @param values the values to check. Must not be {@code null}.
+   * @param lo     the lower bound, inclusive.
+   * @param hi     the upper bound, inclusive.
+   * @return the values themselves.
+   * @throws IllegalStateException if any value is not within {@code [lo, hi]}, or is {@code NaN},
+   *                               with {@link #OUT_OF_RANGE} as the root cause,
+   *                               and the value's index in the message.
+   */
+  public static double[] allInRange(double[] values, double lo, double hi) {
+    int i = indexOutOfRange(notNull(values), lo, hi);
+    if (i >= 0) {
+      throw detailed(OUT_OF_RANGE, "index " + i + ": " + values[i] + " not in [" + lo + ", " + hi + "]");
+    }
+    return values;
+  }
+
+  /** Fail with {@code error}, and {@code message} unless it is {@code null} or blank. */
+  private static CheckException fail(Enum<?> error, String message) {
+    return message == null || message.trim().isEmpty()
+        ? CheckException.of(error, failureMode)
+        : CheckException.of(error, message, failureMode);
+  }
+
+  private static CheckException fail(Enum<?> error, String format, Object ... args) {
+    return fail(error, format == null ? null : String.format(format, args));
+  }
+
+  private static CheckException detailed(Enum<?> error, String detail) {
+    CheckException.Mode mode = failureMode;
+    return mode == CheckException.Mode.SHARED
+        ? CheckException.of(error, mode)
+        : CheckException.of(error, err(error) + ": " + detail, mode);
+  }
+
+  private static CheckException outOfRange(long value, long lo, long hi) {
+    return detailed(OUT_OF_RANGE, value + " not in [" + lo + ", " + hi + "]");
+  }
+
+  private static CheckException outOfRange(int index, long value, long lo, long hi) {
+    return detailed(OUT_OF_RANGE, "index " + index + ": " + value + " not in [" + lo + ", " + hi + "]");
+  }
+
+  private static CheckException outOfRange(double value, double lo, double hi) {
+    return detailed(OUT_OF_RANGE, value + " not in [" + lo + ", " + hi + "]");
+  }
+
+  private static CheckException indexOutOfBounds(int index, int size) {
+    return detailed(INDEX_OUT_OF_BOUNDS, index + " not in [0, " + size + ")");
   }
 }
@@ -0,0 +1,119 @@
+package net.tribe7.reason;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A failed {@link Check} assertion, carrying the root cause error constant, if any.
+ *
+ * This is an {@code IllegalStateException}, so existing callers catching the latter
+ * keep working. The cost of creating a failure is governed by a {@link Mode}, which
+ * can be set globally through {@link Check#setFailureMode(Mode)}, or per call site.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public class CheckException extends IllegalStateException {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Defines how a failure is created. */
+  public enum Mode {
+
+    /** A new failure, with its stack trace captured. This is the default. */
+    TRACE,
+
+    /** A new failure, without a stack trace, which does not record causes. */
+    STACKLESS,
+
+    /**
+     * A preallocated failure, without a stack trace, shared for each error constant.
+     * Failures with a free-form message cannot be shared, and behave as {@link #STACKLESS}.
+     * Shared instances do not record causes, and should not be used as primary
+     * exceptions in {@code try}-with-resources blocks, since suppressed exceptions would
+     * accumulate on them.
+     */
+    SHARED
+  }
+
+  private static final class Stackless extends CheckException {
+    private static final long serialVersionUID = 1L;
+    Stackless(Enum<?> error, String message) { super(error, message, null); }
+    @Override public synchronized Throwable fillInStackTrace() { return this; }
+    @Override String typeName() { return CheckException.class.getName(); }
+  }
+
+  private static final ClassValue<AtomicReferenceArray<CheckException>> shared =
+      new ClassValue<AtomicReferenceArray<CheckException>>() {
+        @Override protected AtomicReferenceArray<CheckException> computeValue(Class<?> type) {
+          return new AtomicReferenceArray<>(type.getEnumConstants().length);
+        }
+      };
+
+  private final Enum<?> error;
+
+  /**
+   * @param error   the root cause error constant. May be {@code null}.
+   * @param message the failure message. May be {@code null}, which defaults to the
+   *                code of {@code error}.
+   */
+  public CheckException(Enum<?> error, String message) {
+    super(message == null && error != null ? Check.err(error) : message);
+    this.error = error;
+  }
+
+  /** Create a failure with a fixed cause, which {@link #initCause(Throwable)} cannot change. */
+  private CheckException(Enum<?> error, String message, Throwable cause) {
+    super(message == null && error != null ? Check.err(error) : message, cause);
+    this.error = error;
+  }
+
+  /** @return the class name to report this failure under, the same for all failure modes. */
+  String typeName() { return getClass().getName(); }
+
+  /** @return the root cause error constant, if any. */
+  public Enum<?> getError() { return error; }
+
+  /**
+   * @return the compact id of the root cause error constant (see {@link ErrorCodes#id(Enum)}),
+   * or {@code -1} if this failure has no error constant.
+   */
+  public int getErrorId() { return error == null ? -1 : ErrorCodes.id(error); }
+
+  /**
+   * Create a failure for an error constant.
+   *
+   * @param error the root cause error constant. Must not be {@code null}.
+   * @param mode  the failure mode. May be {@code null}, which defaults to {@link Mode#TRACE}.
+   * @return the failure.
+   */
+  public static CheckException of(Enum<?> error, Mode mode) {
+    if (mode == Mode.SHARED) {
+      AtomicReferenceArray<CheckException> cache = shared.get(error.getDeclaringClass());
+      CheckException e = cache.get(error.ordinal());
+      if (e == null) {
+        cache.compareAndSet(error.ordinal(), null, new Stackless(error, null));
+        e = cache.get(error.ordinal());
+      }
+      return ReplyMetrics.checkFailure(e);
+    }
+    return of(error, null, mode);
+  }
+
+  /**
+   * Create a failure for an error constant, with a free-form message.
+   *
+   * @param error   the root cause error constant. May be {@code null}.
+   * @param message the failure message. May be {@code null}, which defaults to the
+   *                code of {@code error}.
+   * @param mode    the failure mode. May be {@code null}, which defaults to {@link Mode#TRACE}.
+   * @return the failure.
+   */
+  public static CheckException of(Enum<?> error, String message, Mode mode) {
+    if (mode == Mode.SHARED && message == null && error != null) {
+      return of(error, mode);
+    }
+    return ReplyMetrics.checkFailure(mode == null || mode == Mode.TRACE
+        ? new CheckException(error, message)
+        : new Stackless(error, message));
+  }
+}
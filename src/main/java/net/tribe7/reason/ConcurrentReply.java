@@ -0,0 +1,202 @@
+package net.tribe7.reason;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+import static net.tribe7.reason.Reply.Status.*;
+
+/**
+ * A reply which can be shared by multiple threads, for example by tasks fanned out
+ * on behalf of a single request.
+ *
+ * The outcome of a concurrent reply is settled once, by compare-and-set: the first call to
+ * {@link #ok(Object)} or {@link #bad(Object)} wins, and later calls are ignored. The outcome,
+ * including its payload, is safely published to all threads. Warnings are appended without
+ * locks, to a linked list updated by compare-and-set. Unlike {@link Reply#getWarnings()},
+ * which returns a plain reply's live warning set, {@link #getWarnings()} returns an
+ * unmodifiable snapshot, since warnings may be added concurrently.
+ *
+ * @param <T> the target type expected from a successful reply, if any.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ConcurrentReply<T> extends Reply<T> {
+
+  private static final class Settled {
+    final Status status;
+    final Object data, error;
+    final String message;
+    Settled(Status status, Object data, Object error, String message) {
+      this.status = status;
+      this.data = data;
+      this.error = error;
+      this.message = message;
+    }
+  }
+
+  private static final class Node {
+    final String warning;
+    final Node next;
+    Node(String warning, Node next) {
+      this.warning = warning;
+      this.next = next;
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<ConcurrentReply, Settled> SETTLED =
+      AtomicReferenceFieldUpdater.newUpdater(ConcurrentReply.class, Settled.class, "settled");
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<ConcurrentReply, Node> WARNINGS =
+      AtomicReferenceFieldUpdater.newUpdater(ConcurrentReply.class, Node.class, "warnings");
+
+  private volatile Settled settled;
+  private volatile Node warnings;
+
+  private Reply<T> settle(Settled o) {
+    if (SETTLED.compareAndSet(this, null, o)) {
+      if (o.status == OK) {
+        ReplyMetrics.ok();
+      } else {
+        ReplyMetrics.bad(o.error, o.message);
+      }
+    }
+    return this;
+  }
+
+  /** @return {@code true} if this reply's outcome has been settled, {@code false} otherwise. */
+  public boolean isSettled() { return settled != null; }
+
+  /**
+   * Signal a successful command, unless this reply's outcome is already settled.
+   * @param data the command result's payload.
+   * @return this reply.
+   */
+  @Override public Reply<T> ok(T data) {
+    if (data == null) {
+      return bad(new IllegalArgumentException(MESSAGE_INVALID_RESPONSE_DATA));
+    }
+    return settle(new Settled(OK, data, null, null));
+  }
+
+  /**
+   * Signal an error in a command, unless this reply's outcome is already settled.
+   * @param error the root cause of the error.
+   * @return this reply.
+   */
+  @Override public Reply<T> bad(Object error) {
+    return settle(new Settled(BAD, null, kept(error), messageOf(error)));
+  }
+
+  /**
+   * Signal an error in a command, with an additional explanation,
+   * unless this reply's outcome is already settled.
+   * @param error        the root cause of the error.
+   * @param errorMessage an optional explanation of the error. May be <code>null</code>.
+   * @return this reply.
+   */
+  @Override public Reply<T> bad(Object error, String errorMessage) {
+    boolean explained = errorMessage != null && errorMessage.trim().length() > 0;
+    return settle(new Settled(BAD, null, kept(error), explained ? errorMessage : messageOf(error)));
+  }
+
+  @Override public Reply<T> warn(Enum<?> code) {
+    return warning(code == null ? null : Check.err(code));
+  }
+
+  @Override public Reply<T> warning(String message) {
+    String w = message != null ? message : WARNING_NO_CAUSE;
+    ReplyMetrics.warning(w);
+    return add(w);
+  }
+
+  @Override void addWarnings(Object ws) {
+    forEachWarning(ws, this::add);
+  }
+
+  private Reply<T> add(String w) {
+    for (Node head = warnings, seen = null; ; head = warnings) {
+      for (Node n = head; n != seen; n = n.next) {
+        if (n.warning.equals(w)) { return this; }
+      }
+      if (WARNINGS.compareAndSet(this, head, new Node(w, head))) { return this; }
+      seen = head;
+    }
+  }
+
+  @Override @SuppressWarnings("unchecked")
+  public T getData() {
+    Settled o = settled;
+    return o == null ? null : (T) o.data;
+  }
+
+  @Override public Status getStatus() {
+    Settled o = settled;
+    return o == null ? UNKNOWN : o.status;
+  }
+
+  @Override public Object getError() {
+    Settled o = settled;
+    return o == null ? null : o.error;
+  }
+
+  @Override public String getMessage() {
+    Settled o = settled;
+    return o == null || o.message == null ? MESSAGE_DEFAULT : o.message;
+  }
+
+  @Override public boolean isOk() { return getStatus() == OK; }
+  @Override public boolean isBad() { return getStatus() == BAD; }
+  @Override public boolean isWarning() { return warnings != null; }
+
+  /** @return an unmodifiable snapshot of the warnings issued for this reply so far, in issue order. */
+  @Override public Collection<String> getWarnings() {
+    Collection<String> ws = new LinkedHashSet<>();
+    forEachWarning(ws::add);
+    return Collections.unmodifiableCollection(ws);
+  }
+
+  @Override void forEachWarning(Consumer<String> action) {
+    List<String> ws = new ArrayList<>();
+    for (Node n = warnings; n != null; n = n.next) { ws.add(n.warning); }
+    for (int i = ws.size() - 1; i >= 0; i--) { action.accept(ws.get(i)); }
+  }
+
+  @Override Object copyWarnings() {
+    if (warnings == null) {
+      return null;
+    }
+    List<String> ws = new ArrayList<>();
+    forEachWarning(ws::add);
+    return ws.toArray(new String[0]);
+  }
+
+  @Override Reply<T> copy() {
+    Settled o = settled;
+    return o == null
+        ? new Reply<>(null, null, null, null, copyWarnings())
+        : new Reply<>(o.status, getData(), o.error, o.message, copyWarnings());
+  }
+
+  @Override public Reply<T> freeze() {
+    Settled o = settled;
+    return o == null
+        ? new ImmutableReply<>(null, null, null, null, copyWarnings())
+        : new ImmutableReply<>(o.status, getData(), o.error, o.message, copyWarnings());
+  }
+
+  @Override Status rawStatus() {
+    Settled o = settled;
+    return o == null ? null : o.status;
+  }
+
+  @Override String rawMessage() {
+    Settled o = settled;
+    return o == null ? null : o.message;
+  }
+}
@@ -0,0 +1,137 @@
+package net.tribe7.reason;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static net.tribe7.reason.ReplyCodec.*;
+
+/**
+ * An immutable reply backed by its binary encoding (see {@link ReplyCodec}).
+ * Fields are decoded from the source buffer the first time they are requested.
+ *
+ * @param <T> the target type expected from a successful reply, if any.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+final class EncodedReply<T> extends ImmutableReply<T> {
+
+  private static final Object UNDECODED = new Object();
+
+  private final ByteBuffer buf;
+  private final int header, errorAt, messageAt, warningsAt, payloadAt;
+  private final PayloadCodec<T> payload;
+
+  private volatile Object data = UNDECODED, error = UNDECODED;
+  private volatile String message;
+
+  EncodedReply(ByteBuffer buf, int header, int errorAt, int messageAt,
+               int warningsAt, int payloadAt, PayloadCodec<T> payload) {
+    super(null, null, null, null, null);
+    this.buf = buf;
+    this.header = header;
+    this.errorAt = errorAt;
+    this.messageAt = messageAt;
+    this.warningsAt = warningsAt;
+    this.payloadAt = payloadAt;
+    this.payload = payload;
+  }
+
+  private ByteBuffer at(int position) {
+    ByteBuffer b = buf.duplicate().order(buf.order());
+    b.position(position);
+    return b;
+  }
+
+  @Override public Status getStatus() {
+    Status s = statusOf(header);
+    return s == null ? Status.UNKNOWN : s;
+  }
+
+  @Override public boolean isOk() { return statusOf(header) == Status.OK; }
+  @Override public boolean isBad() { return statusOf(header) == Status.BAD; }
+  @Override public boolean isWarning() { return (header & HAS_WARNINGS) != 0; }
+
+  @Override @SuppressWarnings("unchecked")
+  public T getData() {
+    Object d = data;
+    if (d == UNDECODED) {
+      if ((header & HAS_PAYLOAD) != 0) {
+        ByteBuffer b = at(payloadAt);
+        int n = b.getInt();
+        b.limit(b.position() + n);
+        d = payload.decode(b.slice());
+      } else {
+        d = null;
+      }
+      data = d;
+    }
+    return (T) d;
+  }
+
+  @Override public Object getError() {
+    Object e = error;
+    if (e == UNDECODED) {
+      int kind = (header & ERROR_MASK) >>> ERROR_SHIFT;
+      if (kind == ERROR_ID) {
+        e = ErrorCodes.forId(getVarInt(at(errorAt)));
+      } else if (kind == ERROR_CODE) {
+        String code = getString(at(errorAt));
+        Enum<?> c = ErrorCodes.forCode(code);
+        e = c != null ? c : code;
+      } else if (kind == ERROR_TEXT) {
+        e = getString(at(errorAt));
+      } else {
+        e = null;
+      }
+      error = e;
+    }
+    return e;
+  }
+
+  @Override public String getMessage() {
+    String m = message;
+    if (m == null) {
+      int kind = (header & ERROR_MASK) >>> ERROR_SHIFT;
+      if ((header & HAS_MESSAGE) != 0) {
+        m = getString(at(messageAt));
+      } else if (kind == ERROR_ID || kind == ERROR_CODE) {
+        Object e = getError();
+        m = e instanceof Enum ? Check.err((Enum<?>) e)
+            : e != null ? e.toString()
+            : Check.err(Check.GENERAL_ERROR);
+      } else {
+        m = MESSAGE_DEFAULT;
+      }
+      message = m;
+    }
+    return m;
+  }
+
+  @Override void forEachWarning(Consumer<String> action) {
+    if (isWarning()) {
+      ByteBuffer b = at(warningsAt + 4);
+      for (int i = b.getInt(); i > 0; i--) {
+        action.accept(getString(b));
+      }
+    }
+  }
+
+  @Override Object copyWarnings() {
+    if (!isWarning()) {
+      return null;
+    }
+    List<String> ws = new ArrayList<>();
+    forEachWarning(ws::add);
+    return ws.toArray(new String[0]);
+  }
+
+  @Override Reply<T> copy() {
+    return new Reply<>(statusOf(header), getData(), getError(),
+        statusOf(header) == Status.BAD ? getMessage() : null, copyWarnings());
+  }
+
+  @Override Status rawStatus() { return statusOf(header); }
+  @Override String rawMessage() { return getMessage(); }
+}
@@ -0,0 +1,142 @@
+package net.tribe7.reason;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of error constant codes, as rendered by {@link Check#err(Enum)}.
+ *
+ * Each enum type is registered the first time one of its constants is looked up.
+ * Registration computes the dotted code for every constant of the type once, and
+ * assigns each constant a compact integer id, so that subsequent lookups
+ * neither allocate nor re-encode strings.
+ *
+ * Ids are assigned in registration order, and remain stable for the lifetime of the
+ * class loader. The constants in {@link Check} are always registered first,
+ * so their ids match their ordinal positions across processes, and across releases,
+ * since new constants are only ever appended to {@link Check}.
+ *
+ * The registry does not keep error types loaded: codes are attached to each type
+ * through a {@link ClassValue}, and constants are only referenced weakly. Ids of
+ * unloaded types are not reused, and no longer resolve to a constant.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ErrorCodes {
+
+  private static final class Entry {
+    final String[] codes;
+    final int base;
+
+    Entry(Enum<?>[] constants, int base) {
+      this.codes = new String[constants.length];
+      this.base = base;
+      for (int i = 0; i < constants.length; i++) {
+        codes[i] = constants[i].toString().toLowerCase().replace("_", ".");
+      }
+    }
+  }
+
+  private static final Map<String, WeakReference<Enum<?>>> byCode = new ConcurrentHashMap<>();
+  private static volatile WeakReference<?>[] byId = new WeakReference<?>[0];
+
+  private static final ClassValue<Entry> types = new ClassValue<Entry>() {
+    @Override protected Entry computeValue(Class<?> type) { return compute(type); }
+  };
+
+  static { types.get(Check.class); }
+
+  private ErrorCodes() {}
+
+  /**
+   * Assign ids to a type's constants, unless a concurrent lookup already did, in which
+   * case the ids found are reused.
+   */
+  private static synchronized Entry compute(Class<?> type) {
+    Enum<?>[] constants = (Enum<?>[]) type.getEnumConstants();
+    WeakReference<?>[] ids = byId;
+    for (int i = 0; constants.length > 0 && i < ids.length; i++) {
+      if (ids[i].get() == constants[0]) { return new Entry(constants, i); }
+    }
+    Entry e = new Entry(constants, ids.length);
+    ids = Arrays.copyOf(ids, ids.length + constants.length);
+    for (int i = 0; i < constants.length; i++) {
+      WeakReference<Enum<?>> ref = new WeakReference<>(constants[i]);
+      ids[e.base + i] = ref;
+      WeakReference<Enum<?>> prev = byCode.get(e.codes[i]);
+      if (prev == null || prev.get() == null) { byCode.put(e.codes[i], ref); }
+    }
+    byId = ids;
+    return e;
+  }
+
+  private static Entry entryOf(Enum<?> e) {
+    return types.get(e.getDeclaringClass());
+  }
+
+  /**
+   * @param e the error constant. May be {@code null}, which defaults to {@link Check#GENERAL_ERROR}.
+   * @return the error constant in lowercase format, with underscores {@code '_'}
+   * replaced by dots {@code '.'}.
+   */
+  public static String code(Enum<?> e) {
+    if (e == null) {
+      e = Check.GENERAL_ERROR;
+    }
+    return entryOf(e).codes[e.ordinal()];
+  }
+
+  /**
+   * @param type    an error enum type.
+   * @param ordinal the ordinal of one of the type's constants.
+   * @return the constant's error code, see {@link #code(Enum)}.
+   */
+  static String code(Class<?> type, int ordinal) {
+    return types.get(type).codes[ordinal];
+  }
+
+  /**
+   * @param e the error constant. May be {@code null}, which defaults to {@link Check#GENERAL_ERROR}.
+   * @return the compact integer id assigned to the error constant.
+   */
+  public static int id(Enum<?> e) {
+    if (e == null) {
+      e = Check.GENERAL_ERROR;
+    }
+    return entryOf(e).base + e.ordinal();
+  }
+
+  /**
+   * @param id a compact error id, as returned by {@link #id(Enum)}.
+   * @return the error constant registered under {@code id}, or {@code null} if none.
+   */
+  public static Enum<?> forId(int id) {
+    WeakReference<?>[] ids = byId;
+    return id < 0 || id >= ids.length ? null : (Enum<?>) ids[id].get();
+  }
+
+  /**
+   * @param code a dotted error code, as returned by {@link #code(Enum)}.
+   * @return the first registered error constant encoded as {@code code}, or {@code null}
+   * if no constant of an already registered type matches.
+   */
+  public static Enum<?> forCode(String code) {
+    WeakReference<Enum<?>> ref = code == null ? null : byCode.get(code);
+    return ref == null ? null : ref.get();
+  }
+
+  /**
+   * Register all the constants of an error enum type up front, so that
+   * their ids do not depend on the order of first use.
+   *
+   * @param type the error enum type.
+   * @param <E>  the error enum type.
+   * @return the id assigned to the first constant of {@code type}.
+   */
+  public static <E extends Enum<E>> int register(Class<E> type) {
+    return types.get(Check.notNull(type)).base;
+  }
+}
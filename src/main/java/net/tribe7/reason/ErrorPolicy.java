@@ -0,0 +1,30 @@
+package net.tribe7.reason;
+
+/**
+ * Decides what error data replies keep when they fail, see {@link Reply#setErrorPolicy(ErrorPolicy)}.
+ * Reply messages are always computed from the original error data first.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface ErrorPolicy {
+
+  /** Keep error data as given. This is the default. */
+  ErrorPolicy RETAIN = error -> error;
+
+  /**
+   * @param frames the maximum number of stack frames to keep per throwable. Must not be negative.
+   * @return a policy which keeps throwables as {@link ErrorSnapshot}s, and any other error data as given.
+   */
+  static ErrorPolicy compact(int frames) {
+    Check.nonNegative(frames);
+    return error -> error instanceof Throwable ? ErrorSnapshot.of((Throwable) error, frames) : error;
+  }
+
+  /**
+   * @param error the error data given to a failing reply. May be {@code null}.
+   * @return the error data to keep.
+   */
+  Object apply(Object error);
+}
@@ -0,0 +1,68 @@
+package net.tribe7.reason;
+
+import java.util.Arrays;
+
+/**
+ * A compact, immutable summary of a {@code Throwable}: its class name, message, error code
+ * and top stack frames. Replies keep snapshots instead of the original throwables under a
+ * compacting {@link ErrorPolicy}, so long-lived failed replies do not retain full stack traces,
+ * cause chains or any state captured by the throwables.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ErrorSnapshot {
+
+  private static final StackTraceElement[] NO_FRAMES = new StackTraceElement[0];
+
+  private final String type, message, code;
+  private final StackTraceElement[] frames;
+
+  private ErrorSnapshot(String type, String message, String code, StackTraceElement[] frames) {
+    this.type = type;
+    this.message = message;
+    this.code = code;
+    this.frames = frames;
+  }
+
+  /**
+   * @param t      the throwable. Must not be {@code null}.
+   * @param frames the maximum number of stack frames to keep, from the top. Must not be negative.
+   * @return a snapshot of the throwable.
+   */
+  public static ErrorSnapshot of(Throwable t, int frames) {
+    Check.notNull(t);
+    Check.nonNegative(frames);
+    Enum<?> error = t instanceof CheckException ? ((CheckException) t).getError() : null;
+    StackTraceElement[] st = frames == 0 ? NO_FRAMES : t.getStackTrace();
+    return new ErrorSnapshot(typeOf(t), t.getMessage(), error == null ? null : Check.err(error),
+        st.length <= frames ? st : Arrays.copyOf(st, frames));
+  }
+
+  /**
+   * @param error error data, as held by a reply.
+   * @return the class name of the error, or of the throwable it was taken from for snapshots,
+   * or {@code null} if no error data is given. Check failures are named {@link CheckException},
+   * regardless of their failure mode.
+   */
+  static String typeOf(Object error) {
+    return error instanceof ErrorSnapshot ? ((ErrorSnapshot) error).type
+        : error instanceof CheckException ? ((CheckException) error).typeName()
+        : error == null ? null : error.getClass().getName();
+  }
+
+  /** @return the class name of the original throwable. */
+  public String getType() { return type; }
+
+  /** @return the message of the original throwable, if any. */
+  public String getMessage() { return message; }
+
+  /** @return the error code of the original throwable's error constant (see {@link CheckException#getError()}), if any. */
+  public String getCode() { return code; }
+
+  /** @return a copy of the kept stack frames of the original throwable, from the top. */
+  public StackTraceElement[] getStackTrace() { return frames.clone(); }
+
+  /** @return the same text as the original throwable's {@code toString()}. */
+  @Override public String toString() { return message != null ? type + ": " + message : type; }
+}
@@ -0,0 +1,195 @@
+package net.tribe7.reason;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-capacity log of the most recent failures, for post-mortem diagnostics.
+ *
+ * Failures are recorded from failed replies, see {@link #record(Reply)}, or from all failures
+ * once registered as a listener with {@link ReplyMetrics#register(ReplyListener)}. Only a
+ * compact summary of each failure is kept, in preallocated columns: the error constant's id,
+ * or the error's class name, the message, the warnings and a timestamp. Error objects
+ * themselves, including {@code Throwable}s and their stack traces, are not retained.
+ *
+ * Recording is lock-free, for any number of threads. Each failure claims the next slot of a
+ * ring buffer, overwriting the oldest failure. A failure is dropped, and counted as such, if its
+ * slot is still being written by a slower thread.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class FailureLog implements ReplyListener {
+
+  /** A recorded failure. */
+  public static final class Entry {
+    private final long sequence, timestamp;
+    private final int errorId;
+    private final String errorType, message;
+    private final Object warnings;
+    private final boolean checkFailure;
+
+    Entry(long sequence, long timestamp, int errorId, String errorType, String message,
+          Object warnings, boolean checkFailure) {
+      this.sequence = sequence;
+      this.timestamp = timestamp;
+      this.errorId = errorId;
+      this.errorType = errorType;
+      this.message = message;
+      this.warnings = warnings;
+      this.checkFailure = checkFailure;
+    }
+
+    /** @return the failure's position among all failures recorded, starting at {@code 0}. */
+    public long getSequence() { return sequence; }
+
+    /** @return the time the failure was recorded, in milliseconds since the epoch. */
+    public long getTimestamp() { return timestamp; }
+
+    /** @return the failure's error constant, or {@code null} if none. */
+    public Enum<?> getError() { return errorId < 0 ? null : ErrorCodes.forId(errorId); }
+
+    /** @return the failure's error code for error constants, or its error's class name otherwise. */
+    public String getErrorType() { return errorType; }
+
+    /** @return the failure's message. */
+    public String getMessage() { return message; }
+
+    /** @return the failure's warnings, if any. */
+    public Collection<String> getWarnings() {
+      Collection<String> ws = new HashSet<>();
+      Reply.forEachWarning(warnings, ws::add);
+      return ws;
+    }
+
+    /** @return {@code true} if the failure was an assertion failure, {@code false} for a failed reply. */
+    public boolean isCheckFailure() { return checkFailure; }
+
+    @Override public String toString() {
+      return String.format("%s[seq: %d, time: %d, %s: %s, msg: %s, warn: %s]",
+          getClass().getSimpleName(), sequence, timestamp, checkFailure ? "check" : "err",
+          errorType, message, getWarnings());
+    }
+  }
+
+  /** Stored in the warnings column for assertion failures, which have no warnings. */
+  private static final Object CHECK_FAILURE = new Object();
+
+  private final int mask;
+  private final AtomicLong cursor = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+
+  /** Per slot: {@code 0} if empty, {@code 2 * sequence + 1} while written, {@code 2 * sequence + 2} once written. */
+  private final AtomicLongArray stamps;
+  private final AtomicLongArray timestamps;
+  private final AtomicIntegerArray errorIds;
+  private final AtomicReferenceArray<String> errorTypes, messages;
+  private final AtomicReferenceArray<Object> warnings;
+
+  /** @param capacity the number of failures to keep, rounded up to a power of two. Must be positive. */
+  public FailureLog(int capacity) {
+    int n = Integer.highestOneBit(Check.inRange(capacity, 1, 1 << 30) - 1) << 1;
+    n = Math.max(n, 1);
+    this.mask = n - 1;
+    this.stamps = new AtomicLongArray(n);
+    this.timestamps = new AtomicLongArray(n);
+    this.errorIds = new AtomicIntegerArray(n);
+    this.errorTypes = new AtomicReferenceArray<>(n);
+    this.messages = new AtomicReferenceArray<>(n);
+    this.warnings = new AtomicReferenceArray<>(n);
+  }
+
+  /** @return the number of failures this log keeps. */
+  public int capacity() { return mask + 1; }
+
+  /** @return the number of failures recorded so far, including dropped failures. */
+  public long getRecorded() { return cursor.get(); }
+
+  /** @return the number of failures dropped so far. */
+  public long getDropped() { return dropped.sum(); }
+
+  /**
+   * Record a failed reply. Replies which did not fail are ignored.
+   * @param r the reply. Must not be {@code null}.
+   */
+  public void record(Reply<?> r) {
+    if (Check.notNull(r).isBad()) {
+      record(r.getError(), r.getMessage(), r.isWarning() ? r.copyWarnings() : null, false);
+    }
+  }
+
+  @Override public void onBad(Object error) { onBad(error, Reply.messageOf(error)); }
+
+  @Override public void onBad(Object error, String message) { record(error, message, null, false); }
+
+  @Override public void onCheckFailure(CheckException failure) {
+    record(failure.getError() != null ? failure.getError() : failure, failure.getMessage(), null, true);
+  }
+
+  private void record(Object error, String message, Object ws, boolean check) {
+    long seq = cursor.getAndIncrement();
+    int i = (int) seq & mask;
+    long s = stamps.get(i);
+    if ((s & 1) != 0 || s > 2 * seq || !stamps.compareAndSet(i, s, 2 * seq + 1)) {
+      dropped.increment();
+      return;
+    }
+    boolean coded = error instanceof Enum;
+    timestamps.lazySet(i, System.currentTimeMillis());
+    errorIds.lazySet(i, coded ? ErrorCodes.id((Enum<?>) error) : -1);
+    errorTypes.lazySet(i, coded ? Check.err((Enum<?>) error) : ErrorSnapshot.typeOf(error));
+    messages.lazySet(i, message);
+    warnings.lazySet(i, check ? CHECK_FAILURE : ws);
+    stamps.set(i, 2 * seq + 2);
+  }
+
+  /**
+   * @return a consistent copy of the kept failures, oldest first. Failures being written
+   * while the snapshot is taken are left out.
+   */
+  public List<Entry> snapshot() {
+    List<Entry> out = new ArrayList<>(capacity());
+    for (int i = 0; i <= mask; i++) {
+      long s = stamps.get(i);
+      if (s == 0 || (s & 1) != 0) {
+        continue;
+      }
+      long time = timestamps.get(i);
+      int id = errorIds.get(i);
+      String type = errorTypes.get(i), message = messages.get(i);
+      Object ws = warnings.get(i);
+      if (stamps.get(i) == s) {
+        boolean check = ws == CHECK_FAILURE;
+        out.add(new Entry(s / 2 - 1, time, id, type, message, check ? null : ws, check));
+      }
+    }
+    out.sort(Comparator.comparingLong(Entry::getSequence));
+    return Collections.unmodifiableList(out);
+  }
+
+  /**
+   * Write the kept failures, oldest first, one per line.
+   * @param out the target.
+   * @throws IOException if the target cannot be written to.
+   */
+  public void dump(Appendable out) throws IOException {
+    for (Entry e : snapshot()) {
+      out.append(e.toString()).append(System.lineSeparator());
+    }
+  }
+
+  @Override public String toString() {
+    return String.format("%s[capacity: %d, recorded: %d, dropped: %d]",
+        getClass().getSimpleName(), capacity(), getRecorded(), getDropped());
+  }
+}
@@ -0,0 +1,76 @@
+package net.tribe7.reason;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A reply whose outcome cannot be changed once created. Immutable replies can be cached,
+ * and shared across threads once safely published.
+ *
+ * @param <T> the target type expected from a successful reply, if any.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+class ImmutableReply<T> extends Reply<T> {
+
+  static final String MESSAGE_IMMUTABLE = "reply.is.immutable";
+
+  private static final ClassValue<AtomicReferenceArray<Reply<?>>> errors =
+      new ClassValue<AtomicReferenceArray<Reply<?>>>() {
+        @Override protected AtomicReferenceArray<Reply<?>> computeValue(Class<?> type) {
+          return new AtomicReferenceArray<>(type.getEnumConstants().length);
+        }
+      };
+
+  private static final Reply<Boolean> OK_TRUE = new ImmutableReply<>(Status.OK, Boolean.TRUE, null, null, null);
+  private static final Reply<Boolean> OK_FALSE = new ImmutableReply<>(Status.OK, Boolean.FALSE, null, null, null);
+  private static final Reply<?> BAD_INVALID_DATA = forError(new IllegalArgumentException(MESSAGE_INVALID_RESPONSE_DATA));
+
+  ImmutableReply(Status status, T data, Object error, String message, Object warnings) {
+    super(status, data, error, message, warnings);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> Reply<T> forData(T data) {
+    if (data == null) {
+      return (Reply<T>) BAD_INVALID_DATA;
+    } else if (data instanceof Boolean) {
+      return (Reply<T>) ((Boolean) data ? OK_TRUE : OK_FALSE);
+    }
+    return new ImmutableReply<>(Status.OK, data, null, null, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> Reply<T> forError(Object error) {
+    if (error instanceof Enum) {
+      Enum<?> e = (Enum<?>) error;
+      AtomicReferenceArray<Reply<?>> cache = errors.get(e.getDeclaringClass());
+      Reply<?> r = cache.get(e.ordinal());
+      if (r == null) {
+        cache.compareAndSet(e.ordinal(), null, new ImmutableReply<>(Status.BAD, null, e, messageOf(e), null));
+        r = cache.get(e.ordinal());
+      }
+      return (Reply<T>) r;
+    }
+    return new ImmutableReply<>(Status.BAD, null, kept(error), messageOf(error), null);
+  }
+
+  @Override public Reply<T> ok(T data) { throw new UnsupportedOperationException(MESSAGE_IMMUTABLE); }
+  @Override public Reply<T> bad(Object error) { throw new UnsupportedOperationException(MESSAGE_IMMUTABLE); }
+  @Override public Reply<T> bad(Object error, String errorMessage) { throw new UnsupportedOperationException(MESSAGE_IMMUTABLE); }
+  @Override public Reply<T> warning(String message) { throw new UnsupportedOperationException(MESSAGE_IMMUTABLE); }
+  @Override public Reply<T> warn(Enum<?> code) { throw new UnsupportedOperationException(MESSAGE_IMMUTABLE); }
+  @Override public Reply<T> freeze() { return this; }
+  @Override Reply<T> mutable() { return copy(); }
+
+  @Override public Collection<String> getWarnings() {
+    if (!isWarning()) {
+      return Collections.emptySet();
+    }
+    Collection<String> ws = new HashSet<>();
+    forEachWarning(ws::add);
+    return Collections.unmodifiableCollection(ws);
+  }
+}
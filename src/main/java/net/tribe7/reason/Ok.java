@@ -0,0 +1,43 @@
+package net.tribe7.reason;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A successful outcome. On Java 17 and later, this class is a record.
+ *
+ * @param <T> the payload type.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class Ok<T> implements Outcome<T> {
+
+  private final T data;
+  private final List<String> warnings;
+
+  /**
+   * @param data     the payload. Must not be {@code null}.
+   * @param warnings the warnings issued. May be {@code null}, which defaults to no warnings.
+   */
+  public Ok(T data, List<String> warnings) {
+    this.data = Check.notNull(data);
+    this.warnings = Outcomes.copyOf(warnings);
+  }
+
+  /** @return the payload. */
+  public T data() { return data; }
+
+  @Override public List<String> warnings() { return warnings; }
+
+  @Override public Outcomes.Kind kind() { return Outcomes.Kind.OK; }
+
+  @Override public boolean equals(Object o) {
+    return o instanceof Ok && data.equals(((Ok<?>) o).data) && warnings.equals(((Ok<?>) o).warnings);
+  }
+
+  @Override public int hashCode() { return Objects.hash(data, warnings); }
+
+  @Override public String toString() {
+    return "Ok[data=" + data + ", warnings=" + warnings + "]";
+  }
+}
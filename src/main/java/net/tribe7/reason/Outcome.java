@@ -0,0 +1,26 @@
+package net.tribe7.reason;
+
+import java.util.List;
+
+/**
+ * The settled outcome of a reply, as returned by {@link Reply#outcome()}: either {@link Ok} or {@link Bad}.
+ *
+ * On Java 17 and later, this interface is sealed, and its implementations are records,
+ * so outcomes can be matched with {@code instanceof} patterns, and hot call sites
+ * see a single implementation type per branch.
+ *
+ * @param <T> the target type expected from a successful reply.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public interface Outcome<T> {
+
+  /** @return the warnings issued for the reply, as an unmodifiable list. */
+  List<String> warnings();
+
+  /**
+   * @return the outcome's kind. The result type is not accessible outside of this package,
+   * so {@link Ok} and {@link Bad} remain the only implementations on all Java versions.
+   */
+  Outcomes.Kind kind();
+}
@@ -0,0 +1,59 @@
+package net.tribe7.reason;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static net.tribe7.reason.Reply.Status.*;
+
+/**
+ * Conversions between replies and {@link Outcome}s, shared by all versions of the outcome types.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+final class Outcomes {
+
+  /** The kinds of outcomes. Not accessible outside of this package, so {@link Outcome} cannot be implemented there. */
+  enum Kind { OK, BAD }
+
+  /** An unmodifiable list over a list owned by it, which outcomes can share without copying. */
+  private static final class Warnings extends AbstractList<String> implements RandomAccess {
+    private final List<String> owned;
+    Warnings(List<String> owned) { this.owned = owned; }
+    @Override public String get(int index) { return owned.get(index); }
+    @Override public int size() { return owned.size(); }
+  }
+
+  private Outcomes() {}
+
+  static List<String> copyOf(List<String> warnings) {
+    return warnings == null || warnings.isEmpty() ? Collections.emptyList()
+        : warnings instanceof Warnings ? warnings
+        : new Warnings(new ArrayList<>(warnings));
+  }
+
+  static <T> Outcome<T> of(Reply<T> r) {
+    Reply.Status s = r.getStatus();
+    Check.isTrue(s != UNKNOWN, Check.CONDITION_NOT_SATISFIED);
+    List<String> ws = Collections.emptyList();
+    if (r.isWarning()) {
+      List<String> wl = new ArrayList<>();
+      r.forEachWarning(wl::add);
+      ws = new Warnings(wl);
+    }
+    return s == OK ? new Ok<>(r.getData(), ws) : new Bad<>(r.getError(), r.getMessage(), ws);
+  }
+
+  static <T> Reply<T> toReply(Outcome<T> o) {
+    Object ws = Check.notNull(o).warnings().isEmpty() ? null : o.warnings().toArray(new String[0]);
+    if (o instanceof Ok) {
+      return new ImmutableReply<>(OK, ((Ok<T>) o).data(), null, null, ws);
+    }
+    Check.isTrue(o instanceof Bad, Check.CONDITION_NOT_SATISFIED);
+    Bad<T> b = (Bad<T>) o;
+    return new ImmutableReply<>(BAD, null, b.error(), b.message(), ws);
+  }
+}
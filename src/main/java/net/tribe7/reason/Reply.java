@@ -1,7 +1,18 @@
 package net.tribe7.reason;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A reply is a simple wrapper object which represents an answer
@@ -68,11 +79,35 @@ public class Reply<T> {
   public static final String MESSAGE_DEFAULT = "no.additional.information";
   public static final String MESSAGE_INVALID_RESPONSE_DATA = "response.data.must.not.be.null";
 
+  static final String WARNING_NO_CAUSE =
+      "This reply signaled a warning without provided cause. please verify your code.";
+  private static final int WARNINGS_INLINE = 8;
+
+  private static volatile ErrorPolicy errorPolicy = ErrorPolicy.RETAIN;
+
   private T data;
   private Status status;
   private Object error;
   private String message;
-  private Collection<String> warnings = new HashSet<>();
+
+  /**
+   * Warning storage, allocated on the first warning. Either {@code null}, a single {@code String},
+   * a {@code String[]} of up to {@link #WARNINGS_INLINE} elements, or a {@code HashSet} beyond that,
+   * or once {@link #getWarnings()} has been called. Warnings issued only as error constants are
+   * kept as a single {@code Enum}, or as {@link WarningCodes} bitmasks, until rendered.
+   */
+  private Object warnings;
+
+  /** Create a new reply, with {@link Status#UNKNOWN} status. */
+  public Reply() {}
+
+  Reply(Status status, T data, Object error, String message, Object warnings) {
+    this.status = status;
+    this.data = data;
+    this.error = error;
+    this.message = message;
+    this.warnings = warnings;
+  }
 
   /** @return the reply's data, if any. */
   public T getData() { return data; }
@@ -82,6 +117,7 @@ public class Reply<T> {
     } else {
       this.data = data;
       this.status = Status.OK;
+      ReplyMetrics.ok();
     }
   }
 
@@ -92,24 +128,184 @@ public class Reply<T> {
 
   /** @return the error data, if any. */
   public Object getError() { return error; }
-  private void setError(Object error) {
-    this.error = error;
+  private void setError(Object error, String errorMessage) {
+    this.message = errorMessage != null && errorMessage.trim().length() > 0
+        ? errorMessage : messageOf(error);
+    this.error = kept(error);
     this.status = Status.BAD;
-    if (error != null && error instanceof Throwable) {
-      Throwable t = (Throwable) error;
-      setMessage(t.getMessage());
-    } else { message = MESSAGE_DEFAULT; }
+    ReplyMetrics.bad(error, message);
+  }
+
+  /**
+   * Set the error policy for all failing replies created from now on.
+   * Replies which already failed keep their error data.
+   *
+   * @param policy the error policy. May be {@code null}, which defaults to {@link ErrorPolicy#RETAIN}.
+   */
+  public static void setErrorPolicy(ErrorPolicy policy) {
+    errorPolicy = policy == null ? ErrorPolicy.RETAIN : policy;
+  }
+
+  /** @return the error policy for all failing replies. */
+  public static ErrorPolicy getErrorPolicy() { return errorPolicy; }
+
+  /** @return the error data to keep for {@code error}, according to the error policy. */
+  static Object kept(Object error) {
+    ErrorPolicy p = errorPolicy;
+    return p == ErrorPolicy.RETAIN || error == null ? error : p.apply(error);
+  }
+
+  static String messageOf(Object error) {
+    if (error instanceof Throwable) {
+      return messageOf(((Throwable) error).getMessage());
+    } else if (error instanceof Enum) {
+      return Check.err((Enum<?>) error);
+    }
+    return MESSAGE_DEFAULT;
+  }
+
+  static String messageOf(String message) {
+    return message != null && message.trim().length() > 0 ? message : MESSAGE_DEFAULT;
   }
 
   /** @return the error message, if any. */
   public String getMessage() { return message == null ? MESSAGE_DEFAULT : message; }
-  private void setMessage(String message) {
-    if (message != null && message.trim().length() > 0) { this.message = message; }
-    else { this.message = MESSAGE_DEFAULT; }
+
+  /**
+   * @return any warnings issued for this reply, if any. For plain replies, this is the reply's
+   * own, live warning set. Immutable and concurrent replies (see {@link #freeze()} and
+   * {@link ConcurrentReply}) return unmodifiable snapshots instead.
+   */
+  @SuppressWarnings("unchecked")
+  public Collection<String> getWarnings() {
+    if (!(warnings instanceof Collection)) {
+      Collection<String> ws = new HashSet<>();
+      forEachWarning(ws::add);
+      warnings = ws;
+    }
+    return (Collection<String>) warnings;
+  }
+
+  /** @param action an action to apply to each warning issued for this reply, if any. */
+  void forEachWarning(Consumer<String> action) { forEachWarning(warnings, action); }
+
+  /**
+   * @param ws     warning storage, as held by a reply.
+   * @param action an action to apply to each warning in {@code ws}.
+   */
+  @SuppressWarnings("unchecked")
+  static void forEachWarning(Object ws, Consumer<String> action) {
+    if (ws instanceof String) {
+      action.accept((String) ws);
+    } else if (ws instanceof Enum) {
+      action.accept(Check.err((Enum<?>) ws));
+    } else if (ws instanceof WarningCodes) {
+      ((WarningCodes) ws).forEach(action);
+    } else if (ws instanceof String[]) {
+      for (String w : (String[]) ws) {
+        if (w == null) { break; }
+        action.accept(w);
+      }
+    } else if (ws != null) {
+      ((Collection<String>) ws).forEach(action);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addWarning(String w) {
+    Object ws = warnings;
+    if (ws instanceof Enum || ws instanceof WarningCodes) {
+      warnings = null;
+      forEachWarning(ws, this::addWarning);
+      ws = warnings;
+    }
+    if (ws == null) {
+      warnings = w;
+    } else if (ws instanceof String) {
+      if (!ws.equals(w)) { warnings = new String[] {(String) ws, w, null, null}; }
+    } else if (ws instanceof String[]) {
+      String[] wa = (String[]) ws;
+      int n = 0;
+      for (; n < wa.length && wa[n] != null; n++) {
+        if (wa[n].equals(w)) { return; }
+      }
+      if (n < wa.length) {
+        wa[n] = w;
+      } else if (wa.length < WARNINGS_INLINE) {
+        wa = Arrays.copyOf(wa, wa.length * 2);
+        wa[n] = w;
+        warnings = wa;
+      } else {
+        Collection<String> wc = new HashSet<>(Arrays.asList(wa));
+        wc.add(w);
+        warnings = wc;
+      }
+    } else {
+      ((Collection<String>) ws).add(w);
+    }
+  }
+
+  private void addWarning(Enum<?> e) {
+    Object ws = warnings;
+    if (!WarningCodes.fits(e)) {
+      addWarning(Check.err(e));
+    } else if (ws == null) {
+      warnings = e;
+    } else if (ws instanceof Enum) {
+      if (ws != e) {
+        Enum<?> first = (Enum<?>) ws;
+        warnings = WarningCodes.of(first).add(e);
+      }
+    } else if (ws instanceof WarningCodes) {
+      warnings = ((WarningCodes) ws).add(e);
+    } else {
+      addWarning(Check.err(e));
+    }
+  }
+
+  /**
+   * Merge warnings into this reply's, without reporting them to listeners again.
+   * @param ws warning storage, as returned by {@link #copyWarnings()}, which this reply may keep.
+   */
+  void addWarnings(Object ws) {
+    Object own = warnings;
+    if (ws == null) {
+      return;
+    }
+    if (own == null) {
+      warnings = ws;
+    } else if (ws instanceof Enum) {
+      addWarning((Enum<?>) ws);
+    } else if (ws instanceof WarningCodes && own instanceof Enum) {
+      warnings = ((WarningCodes) ws).add((Enum<?>) own);
+    } else if (ws instanceof WarningCodes && own instanceof WarningCodes) {
+      warnings = ((WarningCodes) own).addAll((WarningCodes) ws);
+    } else {
+      forEachWarning(ws, this::addWarning);
+    }
   }
 
-  /** @return any warnings issued for this reply, if any. */
-  public Collection<String> getWarnings() { return warnings; }
+  /** @return a compact copy of this reply's warning storage, safe to share. */
+  Object copyWarnings() { return copyWarnings(warnings); }
+
+  /**
+   * @param ws warning storage.
+   * @return a compact copy of the storage, safe to share.
+   */
+  static Object copyWarnings(Object ws) {
+    if (ws instanceof WarningCodes) {
+      return ((WarningCodes) ws).copy();
+    } else if (ws instanceof String[]) {
+      String[] wa = (String[]) ws;
+      int n = 0;
+      while (n < wa.length && wa[n] != null) { n++; }
+      return Arrays.copyOf(wa, n);
+    } else if (ws instanceof Collection) {
+      Collection<?> wc = (Collection<?>) ws;
+      return wc.isEmpty() ? null : wc.toArray(new String[0]);
+    }
+    return ws;
+  }
 
   /**
    * Signal a successful command.
@@ -123,11 +319,12 @@ public class Reply<T> {
 
   /**
    * Signal an error in a command.
-   * @param error the root cause of the error.
+   * @param error the root cause of the error. Error constants (see {@link Check#err(Enum)})
+   *              provide their code as the reply's message.
    * @return this reply.
    */
   public Reply<T> bad(Object error) {
-    setError(error);
+    setError(error, null);
     return this;
   }
 
@@ -138,10 +335,7 @@ public class Reply<T> {
    * @return this reply.
    */
   public Reply<T> bad(Object error, String errorMessage) {
-    setError(error);
-    if (errorMessage != null && errorMessage.trim().length() > 0) {
-      setMessage(errorMessage);
-    }
+    setError(error, errorMessage);
     return this;
   }
 
@@ -151,12 +345,48 @@ public class Reply<T> {
    * @return this reply.
    */
   public Reply<T> warning(String message) {
-    warnings.add(message != null ? message :
-        "This reply signaled a warning without provided cause. please verify your code."
-    );
+    String w = message != null ? message : WARNING_NO_CAUSE;
+    addWarning(w);
+    ReplyMetrics.warning(w);
     return this;
   }
 
+  /**
+   * Signal an execution warning in a command, as an error constant. Constants are stored as
+   * compact bitmasks, and rendered as their codes (see {@link Check#err(Enum)}) only when
+   * warnings are read.
+   * @param code the warning constant. May be {@code null}, which signals a warning without cause.
+   * @return this reply.
+   */
+  public Reply<T> warn(Enum<?> code) {
+    if (code == null) {
+      return warning((String) null);
+    }
+    addWarning(code);
+    ReplyMetrics.warning(Check.err(code));
+    return this;
+  }
+
+  /**
+   * @param code a warning constant.
+   * @return {@code true} if the warning was issued for this reply, either as a constant,
+   * or as its code, {@code false} otherwise.
+   */
+  public boolean hasWarning(Enum<?> code) {
+    Object ws = warnings;
+    if (code == null) {
+      return false;
+    } else if (ws instanceof Enum) {
+      return ws == code;
+    } else if (ws instanceof WarningCodes) {
+      return WarningCodes.fits(code) && ((WarningCodes) ws).contains(code);
+    }
+    String c = Check.err(code);
+    boolean[] found = {false};
+    forEachWarning(w -> found[0] |= w.equals(c));
+    return found[0];
+  }
+
   /**
    * Convenience status retrieval method.
    * @return {@code true} if the command was successful, {@code false} otherwise.
@@ -173,14 +403,313 @@ public class Reply<T> {
    * Convenience status retrieval method.
    * @return {@code true} if the command includes warning messages, {@code false} otherwise.
    */
-  public boolean isWarning() { return !this.warnings.isEmpty(); }
+  public boolean isWarning() {
+    Object ws = this.warnings;
+    return ws != null && (!(ws instanceof Collection) || !((Collection<?>) ws).isEmpty());
+  }
+
+  /**
+   * Transform the payload of a successful reply. Any other reply is passed through: returned
+   * as is if immutable, or else as an immutable copy, so the result never aliases a mutable reply.
+   * @param fn  the payload transformation. Exceptions thrown by it produce a failed reply.
+   * @param <R> the transformed payload type.
+   * @return a reply with the transformed payload, carrying this reply's warnings.
+   */
+  public <R> Reply<R> map(Function<? super T, ? extends R> fn) {
+    if (!isOk()) {
+      return passThrough();
+    }
+    Reply<R> r = new Reply<>();
+    try {
+      r.ok(fn.apply(getData()));
+    } catch (RuntimeException e) {
+      r.bad(e);
+    }
+    return r.carry(this);
+  }
+
+  /**
+   * Chain a reply-returning operation on the payload of a successful reply.
+   * Any other reply is passed through, as by {@link #map(Function)}. The chained operation's
+   * reply is never modified: if this reply has warnings, they are carried over to a copy of it.
+   * @param fn  the chained operation. Exceptions thrown by it, or a {@code null} reply,
+   *            produce a failed reply.
+   * @param <R> the chained operation's payload type.
+   * @return the chained operation's reply, carrying this reply's warnings.
+   */
+  public <R> Reply<R> flatMap(Function<? super T, ? extends Reply<R>> fn) {
+    if (!isOk()) {
+      return passThrough();
+    }
+    Reply<R> r;
+    try {
+      r = fn.apply(getData());
+    } catch (RuntimeException e) {
+      r = new Reply<R>().bad(e);
+    }
+    if (r == null) {
+      return ImmutableReply.<R>forError(Check.MISSING_DATA).carry(this);
+    }
+    return isWarning() ? r.copy().carry(this) : r;
+  }
+
+  /**
+   * Replace the outcome of a failed reply with a fallback payload. Any other reply is returned as is.
+   * @param fn the fallback, computed from this reply's error data. Exceptions thrown by it
+   *           produce a failed reply.
+   * @return a reply with the fallback payload, carrying this reply's warnings.
+   */
+  public Reply<T> recover(Function<Object, ? extends T> fn) {
+    if (!isBad()) {
+      return this;
+    }
+    Reply<T> r = new Reply<>();
+    try {
+      r.ok(fn.apply(getError()));
+    } catch (RuntimeException e) {
+      r.bad(e);
+    }
+    return r.carry(this);
+  }
+
+  /**
+   * Apply a side effect to the payload of a successful reply. Any other reply is returned as is.
+   * @param action the side effect. Exceptions thrown by it produce a failed reply.
+   * @return this reply, or a failed reply carrying this reply's warnings.
+   */
+  public Reply<T> peek(Consumer<? super T> action) {
+    if (isOk()) {
+      try {
+        action.accept(getData());
+      } catch (RuntimeException e) {
+        return new Reply<T>().bad(e).carry(this);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Run an operation, capturing its result as a successful reply,
+   * or any exception it throws as a failed reply.
+   * @param call the operation.
+   * @param <T>  the operation's result type.
+   * @return the operation's reply.
+   */
+  public static <T> Reply<T> attempt(Callable<? extends T> call) {
+    Reply<T> r = new Reply<>();
+    try {
+      return r.ok(call.call());
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      return r.bad(e);
+    }
+  }
+
+  /**
+   * Run a reply-returning operation asynchronously, on a virtual thread per operation
+   * on Java 21 and later, or otherwise on a shared pool of one daemon thread per CPU.
+   * On Java 8, blocking operations should use {@link #async(Supplier, Executor)} with
+   * an executor sized for them instead.
+   * @param op  the operation.
+   * @param <T> the operation's payload type.
+   * @return the operation's eventual reply. Exceptions thrown by the operation produce a
+   * failed reply, not a failed stage, as does an operation rejected because the shared
+   * pool already has too many waiting.
+   */
+  public static <T> CompletionStage<Reply<T>> async(Supplier<Reply<T>> op) {
+    return AsyncReplies.async(op, AsyncReplies.defaultExecutor());
+  }
+
+  /**
+   * Run a reply-returning operation asynchronously.
+   * @param op       the operation.
+   * @param executor the executor to run the operation on.
+   * @param <T>      the operation's payload type.
+   * @return the operation's eventual reply. Exceptions thrown by the operation, or a rejected
+   * execution, produce a failed reply, not a failed stage.
+   */
+  public static <T> CompletionStage<Reply<T>> async(Supplier<Reply<T>> op, Executor executor) {
+    return AsyncReplies.async(op, executor);
+  }
+
+  /**
+   * Aggregate eventual replies, once all of them are complete.
+   * @param stages the eventual replies.
+   * @param <T>    the replies' payload type.
+   * @return a successful reply with all payloads in input order, or the first failed reply's
+   * error data otherwise. Warnings from all replies are carried over.
+   */
+  public static <T> CompletionStage<Reply<List<T>>> allOf(Collection<? extends CompletionStage<Reply<T>>> stages) {
+    return AsyncReplies.allOf(stages);
+  }
+
+  /**
+   * Select the first eventual reply to succeed.
+   * @param stages the eventual replies.
+   * @param <T>    the replies' payload type.
+   * @return the first successful reply, or the first failed reply in input order if none succeeds.
+   */
+  public static <T> CompletionStage<Reply<T>> anyOk(Collection<? extends CompletionStage<Reply<T>>> stages) {
+    return AsyncReplies.anyOk(stages);
+  }
+
+  /** @return this reply if immutable, or else an immutable copy of it, retyped for a reply without payload. */
+  @SuppressWarnings("unchecked")
+  private <R> Reply<R> passThrough() {
+    if (this instanceof ImmutableReply && getData() == null) {
+      return (Reply<R>) this;
+    }
+    return new ImmutableReply<>(rawStatus(), null, getError(), rawMessage(), copyWarnings());
+  }
+
+  /**
+   * @return a reply which accepts changes: this reply, or a mutable copy of it. Only for replies
+   * not shared with callers yet.
+   */
+  Reply<T> mutable() { return this; }
+
+  /** @return a mutable copy of this reply. */
+  Reply<T> copy() { return new Reply<>(status, data, error, message, copyWarnings()); }
+
+  private Reply<T> carry(Reply<?> from) {
+    if (!from.isWarning()) {
+      return this;
+    }
+    Reply<T> r = mutable();
+    r.addWarnings(from.copyWarnings());
+    return r;
+  }
+
+  /**
+   * Create an immutable snapshot of this reply, which can be cached and shared across threads.
+   * @return this reply, if already immutable, or an immutable copy of it.
+   */
+  public Reply<T> freeze() {
+    return new ImmutableReply<>(status, data, error, message, copyWarnings());
+  }
+
+  /**
+   * Create an immutable successful reply. Replies for {@code Boolean} payloads are preallocated.
+   * @param data the command result's payload.
+   * @param <T>  the payload type.
+   * @return an immutable reply, which fails if {@code data} is {@code null}.
+   */
+  public static <T> Reply<T> okOf(T data) {
+    Reply<T> r = ImmutableReply.forData(data);
+    if (r.isOk()) {
+      ReplyMetrics.ok();
+    } else {
+      ReplyMetrics.bad(r.getError());
+    }
+    return r;
+  }
+
+  /**
+   * Create an immutable failed reply. Replies for error constants (see {@link Check#err(Enum)})
+   * are preallocated, and shared for each constant.
+   * @param error the root cause of the error.
+   * @param <T>   the payload type.
+   * @return an immutable reply.
+   */
+  public static <T> Reply<T> badOf(Object error) {
+    ReplyMetrics.bad(error);
+    return ImmutableReply.forError(error);
+  }
+
+  /**
+   * Create an immutable failed reply, with an additional explanation.
+   * @param error        the root cause of the error.
+   * @param errorMessage an optional explanation of the error. May be <code>null</code>.
+   * @param <T>          the payload type.
+   * @return an immutable reply.
+   */
+  public static <T> Reply<T> badOf(Object error, String errorMessage) {
+    if (errorMessage != null && errorMessage.trim().length() > 0) {
+      ReplyMetrics.bad(error, errorMessage);
+      return new ImmutableReply<>(Status.BAD, null, kept(error), errorMessage, null);
+    }
+    ReplyMetrics.bad(error);
+    return ImmutableReply.forError(error);
+  }
+
+  /**
+   * @return this reply's outcome: {@link Ok} if successful, or {@link Bad} if failed.
+   * @throws IllegalStateException if this reply has no outcome yet,
+   *                               with {@link Check#CONDITION_NOT_SATISFIED} as the root cause.
+   */
+  public Outcome<T> outcome() {
+    return Outcomes.of(this);
+  }
+
+  /**
+   * Create an immutable reply from an outcome.
+   * @param outcome the outcome. Must not be {@code null}.
+   * @param <T>     the payload type.
+   * @return an immutable reply, with the outcome's payload or error, and warnings.
+   */
+  public static <T> Reply<T> of(Outcome<T> outcome) {
+    return Outcomes.toReply(outcome);
+  }
+
+  /** @return the status as assigned to this reply, or {@code null} if none. */
+  Status rawStatus() { return status; }
+
+  /** @return the message as assigned to this reply, or {@code null} if none. */
+  String rawMessage() { return message; }
+
+  /** @return the simple name of the closest public type of this reply, such as {@code Reply}. */
+  private String typeName() {
+    Class<?> c = getClass();
+    while (!Modifier.isPublic(c.getModifiers())) { c = c.getSuperclass(); }
+    return c.getSimpleName();
+  }
+
+  /**
+   * Append a text representation of this reply, as returned by {@link #toString()}. It starts
+   * with the name of the reply's public type, so immutable and encoded replies show as {@code Reply}.
+   * @param out the target.
+   * @throws IOException if the target cannot be written to.
+   */
+  public void appendTo(Appendable out) throws IOException {
+    out.append(typeName())
+        .append("[stat: ").append(String.valueOf(rawStatus()))
+        .append(", msg: ").append(rawMessage())
+        .append(", err: ").append(String.valueOf(getError()))
+        .append(", warn: [");
+    try {
+      boolean[] first = {true};
+      forEachWarning(w -> {
+        try {
+          out.append(first[0] ? "" : ", ").append(w);
+          first[0] = false;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    out.append("]]");
+  }
+
+  /**
+   * Append a text representation of this reply, as returned by {@link #toString()}.
+   * @param sb the target.
+   * @return the target.
+   */
+  public StringBuilder appendTo(StringBuilder sb) {
+    try {
+      appendTo((Appendable) sb);
+      return sb;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
   @Override
   public String toString() {
-    return String.format(
-        "%s[stat: %s, msg: %s, err: %s, warn: %s]",
-        this.getClass().getSimpleName(),
-        this.status, this.message, this.error, this.warnings
-    );
+    return appendTo(new StringBuilder(64)).toString();
   }
 }
@@ -0,0 +1,214 @@
+package net.tribe7.reason;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static net.tribe7.reason.Reply.Status.*;
+
+/**
+ * A compact, append-only container for the outcomes of many replies.
+ *
+ * Outcomes are stored column-wise instead of as individual {@link Reply} objects: status and
+ * warning flags live in bitsets, and payloads and error data share a single column. Status
+ * and warning counts are maintained as outcomes are added, so they can be queried in constant time.
+ *
+ * A batch is not thread safe. Batches built in parallel can be merged with
+ * {@link #addAll(ReplyBatch)}, see {@link ReplyCollectors#toBatch()}.
+ *
+ * @param <T> the replies' payload type.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyBatch<T> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] values = new Object[INITIAL_CAPACITY];
+  private long[] okBits = new long[1], badBits = new long[1], warnBits = new long[1];
+  private String[] messages;
+  private Object[] warnings;
+  private int size, okCount, badCount, warningCount;
+
+  private static boolean get(long[] bits, int i) { return (bits[i >>> 6] & (1L << i)) != 0; }
+  private static void set(long[] bits, int i) { bits[i >>> 6] |= 1L << i; }
+
+  private void ensureCapacity(int n) {
+    if (n > values.length) {
+      int cap = Math.max(n, values.length * 2);
+      values = Arrays.copyOf(values, cap);
+      okBits = Arrays.copyOf(okBits, (cap + 63) >>> 6);
+      badBits = Arrays.copyOf(badBits, okBits.length);
+      warnBits = Arrays.copyOf(warnBits, okBits.length);
+      if (messages != null) { messages = Arrays.copyOf(messages, cap); }
+      if (warnings != null) { warnings = Arrays.copyOf(warnings, cap); }
+    }
+  }
+
+  private void append(Reply.Status status, Object value, String message, Object ws) {
+    ensureCapacity(size + 1);
+    int i = size++;
+    if (status == OK) {
+      set(okBits, i);
+      okCount++;
+      values[i] = value;
+    } else if (status == BAD) {
+      set(badBits, i);
+      badCount++;
+      values[i] = value;
+      if (messages == null) { messages = new String[values.length]; }
+      messages[i] = message;
+    }
+    if (ws != null) {
+      set(warnBits, i);
+      warningCount++;
+      if (warnings == null) { warnings = new Object[values.length]; }
+      warnings[i] = ws;
+    }
+  }
+
+  /**
+   * Append a reply's outcome to this batch. The reply itself is not retained.
+   * @param r the reply. Must not be {@code null}.
+   * @return this batch.
+   */
+  public ReplyBatch<T> add(Reply<? extends T> r) {
+    Reply.Status s = Check.notNull(r).getStatus();
+    append(s, s == OK ? r.getData() : s == BAD ? r.getError() : null,
+        s == BAD ? r.getMessage() : null, r.isWarning() ? r.copyWarnings() : null);
+    return this;
+  }
+
+  /**
+   * Append all outcomes of another batch to this batch.
+   * @param other the other batch. Must not be {@code null}.
+   * @return this batch.
+   */
+  public ReplyBatch<T> addAll(ReplyBatch<? extends T> other) {
+    ensureCapacity(size + Check.notNull(other).size);
+    for (int i = 0; i < other.size; i++) {
+      append(other.getStatus(i), other.values[i],
+          other.messages == null ? null : other.messages[i],
+          other.warnings == null ? null : other.warnings[i]);
+    }
+    return this;
+  }
+
+  /** @return the number of outcomes in this batch. */
+  public int size() { return size; }
+
+  /** @return the number of successful outcomes in this batch. */
+  public int okCount() { return okCount; }
+
+  /** @return the number of failed outcomes in this batch. */
+  public int badCount() { return badCount; }
+
+  /** @return the number of outcomes with warnings in this batch. */
+  public int warningCount() { return warningCount; }
+
+  /**
+   * @param i the outcome's position.
+   * @return the outcome's status.
+   */
+  public Reply.Status getStatus(int i) {
+    Check.index(i, size);
+    return get(okBits, i) ? OK : get(badBits, i) ? BAD : UNKNOWN;
+  }
+
+  /**
+   * @param i the outcome's position.
+   * @return {@code true} if the outcome was successful, {@code false} otherwise.
+   */
+  public boolean isOk(int i) { return get(okBits, Check.index(i, size)); }
+
+  /**
+   * @param i the outcome's position.
+   * @return {@code true} if the outcome failed, {@code false} otherwise.
+   */
+  public boolean isBad(int i) { return get(badBits, Check.index(i, size)); }
+
+  /**
+   * @param i the outcome's position.
+   * @return {@code true} if the outcome includes warnings, {@code false} otherwise.
+   */
+  public boolean isWarning(int i) { return get(warnBits, Check.index(i, size)); }
+
+  /**
+   * @param i the outcome's position.
+   * @return the outcome's payload, if successful, or {@code null} otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  public T getData(int i) { return isOk(i) ? (T) values[i] : null; }
+
+  /**
+   * @param i the outcome's position.
+   * @return the outcome's error data, if failed, or {@code null} otherwise.
+   */
+  public Object getError(int i) { return isBad(i) ? values[i] : null; }
+
+  /**
+   * @param i the outcome's position.
+   * @return the outcome's message.
+   */
+  public String getMessage(int i) {
+    return isBad(i) && messages[i] != null ? messages[i] : Reply.MESSAGE_DEFAULT;
+  }
+
+  /**
+   * @param i the outcome's position.
+   * @return an immutable reply with the outcome, see {@link Reply#freeze()}.
+   */
+  @SuppressWarnings("unchecked")
+  public Reply<T> get(int i) {
+    Reply.Status s = getStatus(i);
+    return new ImmutableReply<>(s == UNKNOWN ? null : s, s == OK ? (T) values[i] : null,
+        s == BAD ? values[i] : null, s == BAD ? messages[i] : null,
+        warnings == null ? null : warnings[i]);
+  }
+
+  /** @return the payloads of all successful outcomes, in insertion order. */
+  @SuppressWarnings("unchecked")
+  public List<T> okData() {
+    List<T> out = new ArrayList<>(okCount);
+    for (int i = 0; i < size; i++) {
+      if (get(okBits, i)) { out.add((T) values[i]); }
+    }
+    return out;
+  }
+
+  /** @return the distinct warnings of all outcomes. */
+  public Collection<String> getWarnings() {
+    Collection<String> out = new HashSet<>();
+    for (int i = 0; warningCount > 0 && i < size; i++) {
+      if (get(warnBits, i)) { Reply.forEachWarning(warnings[i], out::add); }
+    }
+    return out;
+  }
+
+  /**
+   * @return a successful reply with the payloads of all outcomes if all of them succeeded,
+   * or a failed reply with the first failed outcome's error data and message otherwise.
+   * All warnings are carried over.
+   */
+  public Reply<List<T>> toReply() {
+    Reply<List<T>> r = new Reply<>();
+    for (int i = 0; warningCount > 0 && i < size; i++) {
+      if (get(warnBits, i)) { r.addWarnings(Reply.copyWarnings(warnings[i])); }
+    }
+    if (okCount == size) {
+      return r.ok(Collections.unmodifiableList(okData()));
+    }
+    for (int i = 0; i < size; i++) {
+      if (!get(okBits, i)) { return r.bad(getError(i), getMessage(i)); }
+    }
+    return r;
+  }
+
+  @Override public String toString() {
+    return String.format("%s[size: %d, ok: %d, bad: %d, warn: %d]",
+        getClass().getSimpleName(), size, okCount, badCount, warningCount);
+  }
+}
@@ -0,0 +1,280 @@
+package net.tribe7.reason;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache for idempotent reply-returning operations, keyed by their input.
+ *
+ * <ul>
+ *   <li>Entries are evicted in least recently used order once the cache is full. Large caches
+ *   are split by key hash into segments, each locked and bounded on its own, so lookups of
+ *   different keys rarely contend; the eviction order is then exact only per segment.</li>
+ *   <li>Successful and failed replies expire after separate times to live, so failures can be
+ *   cached briefly (or not at all), without hiding a recovered dependency for long.</li>
+ *   <li>Concurrent misses on a key run the operation once: later callers wait for, and share,
+ *   the first caller's reply. A loader looking up its own key gets a failed reply for
+ *   {@link Check#CONDITION_NOT_SATISFIED}, instead of waiting for itself.</li>
+ *   <li>Invalidating a key discards any load of it in progress: the load's reply is still
+ *   returned to its callers, but not cached.</li>
+ * </ul>
+ *
+ * Cached replies are immutable (see {@link Reply#freeze()}), and shared by all callers.
+ * Replies without an outcome are returned, but not cached.
+ *
+ * @param <K> the key type.
+ * @param <T> the replies' payload type.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyCache<K, T> {
+
+  private static final class Cached<T> {
+    final Reply<T> reply;
+    final long expiresAt;
+    Cached(Reply<T> reply, long expiresAt) {
+      this.reply = reply;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /** A point in time copy of a cache's statistics. */
+  public static final class Stats {
+    private final long hits, misses, evictions, expirations;
+    private final int size;
+
+    Stats(long hits, long misses, long evictions, long expirations, int size) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.expirations = expirations;
+      this.size = size;
+    }
+
+    /** @return the number of lookups answered from the cache. */
+    public long getHits() { return hits; }
+
+    /** @return the number of lookups which ran, or waited for, the operation. */
+    public long getMisses() { return misses; }
+
+    /** @return the number of entries evicted to bound the cache's size. */
+    public long getEvictions() { return evictions; }
+
+    /** @return the number of entries removed once expired. */
+    public long getExpirations() { return expirations; }
+
+    /** @return the number of cached entries. */
+    public int getSize() { return size; }
+
+    /** @return the ratio of lookups answered from the cache, or {@code 0} if none. */
+    public double getHitRatio() { return hits + misses == 0 ? 0 : (double) hits / (hits + misses); }
+
+    @Override public String toString() {
+      return String.format("%s[hits: %d, misses: %d, evictions: %d, expirations: %d, size: %d]",
+          getClass().getSimpleName(), hits, misses, evictions, expirations, size);
+    }
+  }
+
+  /** A load in progress, owned by the thread running it. */
+  private static final class Load<T> extends CompletableFuture<Reply<T>> {
+    final Thread owner = Thread.currentThread();
+  }
+
+  /** Access ordered entries, bounded by evicting the least recently used. */
+  private final class Segment extends LinkedHashMap<K, Cached<T>> {
+    private static final long serialVersionUID = 1L;
+    private final int capacity;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override protected boolean removeEldestEntry(Map.Entry<K, Cached<T>> eldest) {
+      if (size() > capacity) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /** The minimum number of entries per segment. Caches below twice this size are not split. */
+  private static final int SEGMENT_MIN_SIZE = 64;
+  private static final int MAX_SEGMENTS = 16;
+
+  private final long okTtl, badTtl;
+  private final LongSupplier ticker;
+  private final List<Segment> segments;
+  private final Map<K, Load<T>> loading = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder(), expirations = new LongAdder();
+
+  /**
+   * @param maxSize the maximum number of cached entries. Must be positive.
+   * @param okTtl   the time to live of successful replies. Must not be negative.
+   * @param badTtl  the time to live of failed replies. Must not be negative; {@code 0}
+   *                disables caching of failed replies.
+   * @param unit    the unit of both times to live.
+   */
+  public ReplyCache(int maxSize, long okTtl, long badTtl, TimeUnit unit) {
+    this(maxSize, okTtl, badTtl, unit, System::nanoTime);
+  }
+
+  /**
+   * @param maxSize the maximum number of cached entries. Must be positive.
+   * @param okTtl   the time to live of successful replies. Must not be negative.
+   * @param badTtl  the time to live of failed replies. Must not be negative; {@code 0}
+   *                disables caching of failed replies.
+   * @param unit    the unit of both times to live.
+   * @param ticker  a source of nanosecond timestamps, as {@link System#nanoTime()}.
+   */
+  public ReplyCache(int maxSize, long okTtl, long badTtl, TimeUnit unit, LongSupplier ticker) {
+    Check.inRange(maxSize, 1, Integer.MAX_VALUE);
+    this.okTtl = Check.notNull(unit).toNanos(Check.nonNegative(okTtl));
+    this.badTtl = unit.toNanos(Check.nonNegative(badTtl));
+    this.ticker = Check.notNull(ticker);
+    int n = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxSize / SEGMENT_MIN_SIZE)));
+    this.segments = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      segments.add(new Segment(maxSize / n + (i < maxSize % n ? 1 : 0)));
+    }
+  }
+
+  private Segment segmentFor(Object key) {
+    int h = key.hashCode();
+    return segments.get((h ^ h >>> 16) & segments.size() - 1);
+  }
+
+  /**
+   * Look up a key's reply, running the operation on a miss.
+   * @param key    the key. Must not be {@code null}.
+   * @param loader the operation. Exceptions thrown by it, or a {@code null} reply,
+   *               produce a failed reply.
+   * @return the cached, or freshly computed, reply.
+   */
+  public Reply<T> get(K key, Function<? super K, Reply<T>> loader) {
+    Reply<T> r = getIfPresent(Check.notNull(key));
+    if (r != null) {
+      return r;
+    }
+    misses.increment();
+    Load<T> f = new Load<>();
+    Load<T> running = loading.putIfAbsent(key, f);
+    if (running != null) {
+      return running.owner == f.owner ? Reply.badOf(Check.CONDITION_NOT_SATISFIED) : running.join();
+    }
+    try {
+      r = lookup(key);
+      if (r == null) {
+        r = load(key, loader);
+        Cached<T> e = cached(r);
+        Segment entries = segmentFor(key);
+        synchronized (entries) {
+          if (loading.remove(key, f) && e != null) { entries.put(key, e); }
+        }
+      }
+    } finally {
+      loading.remove(key, f);
+      f.complete(r != null ? r : Reply.badOf(Check.GENERAL_ERROR));
+    }
+    return r;
+  }
+
+  private Reply<T> load(K key, Function<? super K, Reply<T>> loader) {
+    Reply<T> r;
+    try {
+      r = loader.apply(key);
+    } catch (RuntimeException e) {
+      r = new Reply<T>().bad(e);
+    }
+    return r == null ? Reply.badOf(Check.MISSING_DATA) : r.freeze();
+  }
+
+  /**
+   * @param key the key.
+   * @return the key's cached reply, or {@code null} if none, or if expired.
+   */
+  public Reply<T> getIfPresent(K key) {
+    Reply<T> r = lookup(key);
+    if (r != null) {
+      hits.increment();
+    }
+    return r;
+  }
+
+  private Reply<T> lookup(K key) {
+    Segment entries = segmentFor(key);
+    synchronized (entries) {
+      Cached<T> e = entries.get(key);
+      if (e != null) {
+        if (ticker.getAsLong() - e.expiresAt < 0) {
+          return e.reply;
+        }
+        entries.remove(key);
+        expirations.increment();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Cache a reply, replacing any cached reply for the key.
+   * @param key the key. Must not be {@code null}.
+   * @param r   the reply. Must not be {@code null}.
+   */
+  public void put(K key, Reply<T> r) {
+    Cached<T> e = cached(Check.notNull(r));
+    if (e != null) {
+      Segment entries = segmentFor(Check.notNull(key));
+      synchronized (entries) { entries.put(key, e); }
+    }
+  }
+
+  /** @return a cache entry for the reply, or {@code null} if the reply is not to be cached. */
+  private Cached<T> cached(Reply<T> r) {
+    long ttl = r.isOk() ? okTtl : r.isBad() ? badTtl : 0;
+    return ttl > 0 ? new Cached<>(r.freeze(), ticker.getAsLong() + ttl) : null;
+  }
+
+  /** @param key the key whose cached reply, and load in progress, to discard, if any. */
+  public void invalidate(K key) {
+    Segment entries = segmentFor(key);
+    synchronized (entries) {
+      loading.remove(key);
+      entries.remove(key);
+    }
+  }
+
+  /** Discard all cached replies, and loads in progress. */
+  public void invalidateAll() {
+    loading.clear();
+    for (Segment entries : segments) {
+      synchronized (entries) { entries.clear(); }
+    }
+  }
+
+  /** @return the number of cached entries, including expired entries not yet removed. */
+  public int size() {
+    int n = 0;
+    for (Segment entries : segments) {
+      synchronized (entries) { n += entries.size(); }
+    }
+    return n;
+  }
+
+  /** @return the cache's statistics. */
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size());
+  }
+
+  @Override public String toString() { return stats().toString(); }
+}
@@ -0,0 +1,272 @@
+package net.tribe7.reason;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static net.tribe7.reason.Reply.Status.*;
+
+/**
+ * Compact binary encoding for replies, written to and read from {@link ByteBuffer}s
+ * (heap, direct or memory-mapped) without intermediate byte arrays.
+ *
+ * An encoded reply is laid out as:
+ *
+ * <ul>
+ *   <li>A header byte, with the reply's status and the presence of the fields below.</li>
+ *   <li>The error data: a varint error id for {@link Check} constants, the error code for other
+ *   error constants, or the error's string representation otherwise. Ids unknown to the reader,
+ *   for example of constants added in a later version, decode as no error data, with the
+ *   code of {@link Check#GENERAL_ERROR} as message.</li>
+ *   <li>The message, if not {@link Reply#MESSAGE_DEFAULT}, or the error code of an error constant.</li>
+ *   <li>The warnings, prefixed by their size in bytes and their count.</li>
+ *   <li>The payload, prefixed by its size in bytes, as written by a {@link PayloadCodec}.</li>
+ * </ul>
+ *
+ * Strings are encoded as a varint byte length, followed by their UTF-8 bytes. Fixed-size
+ * fields are written in the target buffer's byte order, and must be read with the same order.
+ * Malformed varints and UTF-8 sequences fail with a {@link CheckException} for
+ * {@link Check#OUT_OF_RANGE} when read.
+ *
+ * Decoding is lazy: {@link #decode(ByteBuffer)} only reads the header and field offsets, so
+ * a consumer checking {@link Reply#isOk()} never decodes the payload or warnings. Decoded replies
+ * are immutable, and read from the source buffer on demand, so its content must not change
+ * while they are in use.
+ *
+ * @param <T> the replies' payload type.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyCodec<T> {
+
+  /**
+   * Binary encoding for reply payloads.
+   * @param <T> the payload type.
+   */
+  public interface PayloadCodec<T> {
+
+    /** Encode payloads as UTF-8 strings. */
+    PayloadCodec<String> STRING = new PayloadCodec<String>() {
+      @Override public void encode(String value, ByteBuffer out) { putString(value, out); }
+      @Override public String decode(ByteBuffer in) { return getString(in); }
+    };
+
+    /** Encode payloads as 64-bit integers, in the buffer's byte order. */
+    PayloadCodec<Long> LONG = new PayloadCodec<Long>() {
+      @Override public void encode(Long value, ByteBuffer out) { out.putLong(value); }
+      @Override public Long decode(ByteBuffer in) { return in.getLong(); }
+    };
+
+    /**
+     * @param value the payload to write. Never {@code null}.
+     * @param out   the target buffer, positioned where the payload starts.
+     */
+    void encode(T value, ByteBuffer out);
+
+    /**
+     * @param in the source buffer, positioned where the payload starts,
+     *           and limited to where the payload ends.
+     * @return the payload.
+     */
+    T decode(ByteBuffer in);
+  }
+
+  static final int STATUS_MASK = 0x03;
+  static final int ERROR_SHIFT = 2, ERROR_MASK = 0x03 << ERROR_SHIFT;
+  static final int ERROR_NONE = 0, ERROR_ID = 1, ERROR_CODE = 2, ERROR_TEXT = 3;
+  static final int HAS_MESSAGE = 0x10, HAS_WARNINGS = 0x20, HAS_PAYLOAD = 0x40;
+
+  private final PayloadCodec<T> payload;
+
+  /** @param payload the payload encoding. Must not be {@code null}. */
+  public ReplyCodec(PayloadCodec<T> payload) {
+    this.payload = Check.notNull(payload);
+  }
+
+  static int statusBits(Reply.Status s) { return s == OK ? 1 : s == BAD ? 2 : 0; }
+  static Reply.Status statusOf(int header) {
+    int s = header & STATUS_MASK;
+    return s == 1 ? OK : s == 2 ? BAD : null;
+  }
+
+  /**
+   * Encode a reply.
+   * @param r   the reply. Must not be {@code null}.
+   * @param out the target buffer, written from its current position.
+   * @return the target buffer, positioned after the encoded reply.
+   * @throws java.nio.BufferOverflowException if the target buffer has not enough space left.
+   */
+  public ByteBuffer encode(Reply<? extends T> r, ByteBuffer out) {
+    Reply.Status status = Check.notNull(r).getStatus();
+    Object error = status == BAD ? r.getError() : null;
+    String message = r.getMessage();
+    T data = status == OK ? r.getData() : null;
+    int errorKind = error == null ? ERROR_NONE
+        : error instanceof Check ? ERROR_ID
+        : error instanceof Enum ? ERROR_CODE : ERROR_TEXT;
+    boolean hasMessage = !message.equals(errorKind == ERROR_ID || errorKind == ERROR_CODE
+        ? Check.err((Enum<?>) error) : Reply.MESSAGE_DEFAULT);
+    out.put((byte) (statusBits(status) | errorKind << ERROR_SHIFT
+        | (hasMessage ? HAS_MESSAGE : 0)
+        | (r.isWarning() ? HAS_WARNINGS : 0)
+        | (data != null ? HAS_PAYLOAD : 0)));
+    if (errorKind == ERROR_ID) {
+      putVarInt(((Check) error).ordinal(), out);
+    } else if (errorKind == ERROR_CODE) {
+      putString(Check.err((Enum<?>) error), out);
+    } else if (errorKind == ERROR_TEXT) {
+      putString(error.toString(), out);
+    }
+    if (hasMessage) {
+      putString(message, out);
+    }
+    if (r.isWarning()) {
+      int start = out.position();
+      out.putInt(0).putInt(0);
+      r.forEachWarning(w -> {
+        putString(w, out);
+        out.putInt(start + 4, out.getInt(start + 4) + 1);
+      });
+      out.putInt(start, out.position() - start - 4);
+    }
+    if (data != null) {
+      int start = out.position();
+      out.putInt(0);
+      payload.encode(data, out);
+      out.putInt(start, out.position() - start - 4);
+    }
+    return out;
+  }
+
+  /**
+   * Decode a reply, lazily.
+   * @param in the source buffer, read from its current position.
+   * @return an immutable reply, backed by the source buffer's content. Later changes to the source
+   *         buffer's position, limit or byte order do not affect it.
+   * @throws BufferUnderflowException if the source buffer does not hold a complete reply.
+   */
+  public Reply<T> decode(ByteBuffer in) {
+    int header = in.get() & 0xFF;
+    int errorAt = in.position();
+    int errorKind = (header & ERROR_MASK) >>> ERROR_SHIFT;
+    if (errorKind == ERROR_ID) {
+      getVarInt(in);
+    } else if (errorKind != ERROR_NONE) {
+      skipString(in);
+    }
+    int messageAt = in.position();
+    if ((header & HAS_MESSAGE) != 0) {
+      skipString(in);
+    }
+    int warningsAt = in.position();
+    if ((header & HAS_WARNINGS) != 0) {
+      skip(in, in.getInt());
+    }
+    int payloadAt = in.position();
+    if ((header & HAS_PAYLOAD) != 0) {
+      skip(in, in.getInt());
+    }
+    ByteBuffer src = in.duplicate().order(in.order());
+    return new EncodedReply<>(src, header, errorAt, messageAt, warningsAt, payloadAt, payload);
+  }
+
+  private static void skip(ByteBuffer in, int n) {
+    if (n < 0 || n > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    in.position(in.position() + n);
+  }
+
+  static void putVarInt(int v, ByteBuffer out) {
+    while ((v & ~0x7F) != 0) {
+      out.put((byte) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    out.put((byte) v);
+  }
+
+  static int getVarInt(ByteBuffer in) {
+    int v = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.get();
+      v |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return v;
+      }
+    }
+    throw malformed();
+  }
+
+  private static CheckException malformed() {
+    return CheckException.of(Check.OUT_OF_RANGE, Check.getFailureMode());
+  }
+
+  static int utf8Length(String s) {
+    int n = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) { n += 1; }
+      else if (c < 0x800) { n += 2; }
+      else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+        n += 4;
+        i++;
+      } else { n += 3; }
+    }
+    return n;
+  }
+
+  static void putString(String s, ByteBuffer out) {
+    putVarInt(utf8Length(s), out);
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        out.put((byte) c);
+      } else if (c < 0x800) {
+        out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, s.charAt(++i));
+        out.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+            .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+      } else {
+        out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+      }
+    }
+  }
+
+  static String getString(ByteBuffer in) {
+    int n = getVarInt(in);
+    if (n < 0 || n > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    char[] cs = new char[n];
+    int k = 0;
+    for (int end = in.position() + n; in.position() < end; ) {
+      int b = in.get() & 0xFF;
+      if (b < 0x80) {
+        cs[k++] = (char) b;
+      } else if (b >= 0xC2 && b < 0xE0 && in.position() + 1 <= end) {
+        cs[k++] = (char) ((b & 0x1F) << 6 | next(in));
+      } else if (b >= 0xE0 && b < 0xF0 && in.position() + 2 <= end) {
+        int c = (b & 0x0F) << 12 | next(in) << 6 | next(in);
+        if (c < 0x800) { throw malformed(); }
+        cs[k++] = (char) c;
+      } else if (b >= 0xF0 && b < 0xF5 && in.position() + 3 <= end) {
+        int cp = (b & 0x07) << 18 | next(in) << 12 | next(in) << 6 | next(in);
+        if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT || cp > Character.MAX_CODE_POINT) { throw malformed(); }
+        cs[k++] = Character.highSurrogate(cp);
+        cs[k++] = Character.lowSurrogate(cp);
+      } else {
+        throw malformed();
+      }
+    }
+    return new String(cs, 0, k);
+  }
+
+  /** @return the payload bits of a UTF-8 continuation byte. */
+  private static int next(ByteBuffer in) {
+    int c = in.get();
+    if ((c & 0xC0) != 0x80) { throw malformed(); }
+    return c & 0x3F;
+  }
+
+  static void skipString(ByteBuffer in) { skip(in, getVarInt(in)); }
+}
@@ -0,0 +1,44 @@
+package net.tribe7.reason;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Stream collectors for replies. All collectors merge partial results built by parallel
+ * streams in encounter order, so they can be used with parallel streams and fork-join pools.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyCollectors {
+
+  private ReplyCollectors() {}
+
+  /**
+   * @param <T> the replies' payload type.
+   * @return a collector which stores reply outcomes in a {@link ReplyBatch}.
+   */
+  public static <T> Collector<Reply<? extends T>, ?, ReplyBatch<T>> toBatch() {
+    return Collector.of(ReplyBatch::new, ReplyBatch::add, ReplyBatch::addAll);
+  }
+
+  /**
+   * @param <T> the replies' payload type.
+   * @return a collector which stores successful outcomes in a {@link ReplyBatch} under
+   * {@code true}, and all other outcomes in another under {@code false}. Both keys are
+   * always present, and each batch keeps its outcomes' warnings.
+   */
+  public static <T> Collector<Reply<? extends T>, ?, Map<Boolean, ReplyBatch<T>>> partition() {
+    return Collectors.partitioningBy(Reply::isOk, toBatch());
+  }
+
+  /**
+   * @param <T> the replies' payload type.
+   * @return a collector which combines replies into a single reply, see {@link ReplyBatch#toReply()}.
+   */
+  public static <T> Collector<Reply<? extends T>, ?, Reply<List<T>>> toReply() {
+    return Collector.of(ReplyBatch<T>::new, ReplyBatch::add, ReplyBatch::addAll, ReplyBatch::toReply);
+  }
+}
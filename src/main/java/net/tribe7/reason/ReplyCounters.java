@@ -0,0 +1,134 @@
+package net.tribe7.reason;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ReplyListener} which counts reply outcomes, warnings and {@link Check} failures,
+ * in total and per error. Errors are keyed by their code for error constants (see
+ * {@link Check#err(Enum)}), or by their class name otherwise.
+ *
+ * Counters are striped {@link LongAdder}s, so contended updates do not serialize.
+ * Error constant counters are indexed by {@link ErrorCodes#id(Enum)}, without hashing.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyCounters implements ReplyListener {
+
+  /** Counts per error. */
+  private static final class Tally {
+    private volatile LongAdder[] byId = new LongAdder[16];
+    private final Map<String, LongAdder> byName = new ConcurrentHashMap<>();
+
+    void add(Object error) {
+      if (error instanceof Enum) {
+        int id = ErrorCodes.id((Enum<?>) error);
+        LongAdder[] ids = byId;
+        LongAdder a = id < ids.length ? ids[id] : null;
+        (a == null ? counter(id) : a).increment();
+      } else {
+        byName.computeIfAbsent(error == null ? "null" : ErrorSnapshot.typeOf(error), k -> new LongAdder()).increment();
+      }
+    }
+
+    private synchronized LongAdder counter(int id) {
+      LongAdder[] ids = byId;
+      if (id >= ids.length) {
+        ids = Arrays.copyOf(ids, Math.max(id + 1, ids.length * 2));
+      }
+      if (ids[id] == null) {
+        ids[id] = new LongAdder();
+        byId = ids;
+      }
+      return ids[id];
+    }
+
+    Map<String, Long> snapshot(boolean reset) {
+      Map<String, Long> out = new TreeMap<>();
+      LongAdder[] ids = byId;
+      for (int i = 0; i < ids.length; i++) {
+        if (ids[i] != null) { out.merge(ErrorCodes.code(ErrorCodes.forId(i)), sum(ids[i], reset), Long::sum); }
+      }
+      byName.forEach((k, v) -> out.merge(k, sum(v, reset), Long::sum));
+      return Collections.unmodifiableMap(out);
+    }
+  }
+
+  /** A point in time copy of the counters. */
+  public static final class Snapshot {
+    private final long ok, bad, warnings, checkFailures;
+    private final Map<String, Long> errors, checkErrors;
+
+    Snapshot(long ok, long bad, long warnings, long checkFailures,
+             Map<String, Long> errors, Map<String, Long> checkErrors) {
+      this.ok = ok;
+      this.bad = bad;
+      this.warnings = warnings;
+      this.checkFailures = checkFailures;
+      this.errors = errors;
+      this.checkErrors = checkErrors;
+    }
+
+    /** @return the number of successful replies. */
+    public long getOk() { return ok; }
+
+    /** @return the number of failed replies. */
+    public long getBad() { return bad; }
+
+    /** @return the number of warnings issued. */
+    public long getWarnings() { return warnings; }
+
+    /** @return the number of assertion failures. */
+    public long getCheckFailures() { return checkFailures; }
+
+    /** @return the number of failed replies per error, sorted by error. */
+    public Map<String, Long> getErrors() { return errors; }
+
+    /** @return the number of assertion failures per error, sorted by error. */
+    public Map<String, Long> getCheckErrors() { return checkErrors; }
+
+    @Override public String toString() {
+      return String.format("%s[ok: %d, bad: %d, warn: %d, check: %d, errors: %s, checkErrors: %s]",
+          getClass().getSimpleName(), ok, bad, warnings, checkFailures, errors, checkErrors);
+    }
+  }
+
+  private final LongAdder ok = new LongAdder(), bad = new LongAdder();
+  private final LongAdder warnings = new LongAdder(), checkFailures = new LongAdder();
+  private final Tally errors = new Tally(), checkErrors = new Tally();
+
+  private static long sum(LongAdder a, boolean reset) { return reset ? a.sumThenReset() : a.sum(); }
+
+  @Override public void onOk() { ok.increment(); }
+
+  @Override public void onBad(Object error) {
+    bad.increment();
+    errors.add(error);
+  }
+
+  @Override public void onWarning(String warning) { warnings.increment(); }
+
+  @Override public void onCheckFailure(CheckException failure) {
+    checkFailures.increment();
+    checkErrors.add(failure.getError() != null ? failure.getError() : failure);
+  }
+
+  /** @return the current counts. */
+  public Snapshot snapshot() { return snapshot(false); }
+
+  /**
+   * @return the current counts, resetting all counters. Updates concurrent with the reset
+   * may be reported in this snapshot or in the next one.
+   */
+  public Snapshot snapshotAndReset() { return snapshot(true); }
+
+  private Snapshot snapshot(boolean reset) {
+    return new Snapshot(sum(ok, reset), sum(bad, reset), sum(warnings, reset), sum(checkFailures, reset),
+        errors.snapshot(reset), checkErrors.snapshot(reset));
+  }
+}
@@ -0,0 +1,161 @@
+package net.tribe7.reason;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free histogram of non-negative values, such as latencies in nanoseconds.
+ *
+ * Values are counted in log-linear buckets: each power of two range is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so recorded values are resolved with a relative
+ * error below {@code 1/}{@value #SUB_BUCKETS}, across the whole {@code long} range.
+ * Values below {@value #SUB_BUCKETS} are counted exactly. Recording a value does not allocate,
+ * and only updates a single bucket, a striped sum and, rarely, the maximum.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyHistogram {
+
+  private static final int SUB_BITS = 5;
+
+  /** The number of linear sub-buckets per power of two range. */
+  public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+  static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+  /** A point in time copy of a histogram. */
+  public static final class Snapshot {
+    private final long[] counts;
+    private final long count, sum, max;
+
+    Snapshot(long[] counts, long sum, long max) {
+      long n = 0;
+      for (long c : counts) { n += c; }
+      this.counts = counts;
+      this.count = n;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    /** @return the number of recorded values. */
+    public long getCount() { return count; }
+
+    /** @return the sum of all recorded values. */
+    public long getSum() { return sum; }
+
+    /** @return the largest recorded value, or {@code 0} if none. */
+    public long getMax() { return max; }
+
+    /** @return the mean of all recorded values, or {@code 0} if none. */
+    public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+
+    /**
+     * @param percentile the percentile, between {@code 0} and {@code 100}.
+     * @return the highest value equivalent to the value at {@code percentile},
+     * capped at the largest recorded value, or {@code 0} if no values were recorded.
+     */
+    public long getValueAt(double percentile) {
+      Check.inRange(percentile, 0, 100);
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(highestOf(i), max);
+        }
+      }
+      return max;
+    }
+
+    /**
+     * @param i a bucket index, between {@code 0} and {@link #getBucketCount()}.
+     * @return the number of values recorded in the bucket.
+     */
+    public long getCount(int i) { return counts[Check.index(i, counts.length)]; }
+
+    /** @return the number of buckets. */
+    public int getBucketCount() { return counts.length; }
+
+    @Override public String toString() {
+      return String.format("%s[count: %d, mean: %.1f, p50: %d, p99: %d, p999: %d, max: %d]",
+          getClass().getSimpleName(), count, getMean(),
+          getValueAt(50), getValueAt(99), getValueAt(99.9), max);
+    }
+  }
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * @param value a non-negative value.
+   * @return the index of the bucket counting {@code value}.
+   */
+  public static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int e = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int) (value >>> (e - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return (e - SUB_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * @param i a bucket index.
+   * @return the lowest value counted in the bucket.
+   */
+  public static long lowestOf(int i) {
+    if (i < SUB_BUCKETS) {
+      return i;
+    }
+    int shift = i / SUB_BUCKETS - 1;
+    return (long) (SUB_BUCKETS + i % SUB_BUCKETS) << shift;
+  }
+
+  /**
+   * @param i a bucket index.
+   * @return the highest value counted in the bucket.
+   */
+  public static long highestOf(int i) {
+    return i < SUB_BUCKETS ? i : lowestOf(i) + (1L << (i / SUB_BUCKETS - 1)) - 1;
+  }
+
+  /**
+   * Record a value. Negative values, for example from a clock adjustment, are recorded as {@code 0}.
+   * @param value the value.
+   */
+  public void record(long value) {
+    long v = Math.max(0, value);
+    counts.incrementAndGet(indexOf(v));
+    sum.add(v);
+    for (long m = max.get(); v > m; m = max.get()) {
+      if (max.compareAndSet(m, v)) { break; }
+    }
+  }
+
+  /** @return a copy of the recorded values. */
+  public Snapshot snapshot() { return snapshot(false); }
+
+  /**
+   * @return a copy of the recorded values, resetting this histogram to start a new interval.
+   * Values recorded concurrently with the reset are reported in this snapshot or in the next one.
+   */
+  public Snapshot snapshotAndReset() { return snapshot(true); }
+
+  private Snapshot snapshot(boolean reset) {
+    long[] cs = new long[BUCKETS];
+    for (int i = 0; i < cs.length; i++) {
+      cs[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+    }
+    return reset
+        ? new Snapshot(cs, sum.sumThenReset(), max.getAndSet(0))
+        : new Snapshot(cs, sum.sum(), max.get());
+  }
+
+  @Override public String toString() { return snapshot().toString(); }
+}
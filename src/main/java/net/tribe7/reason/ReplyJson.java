@@ -0,0 +1,227 @@
+package net.tribe7.reason;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streaming JSON rendering for replies. Replies are written as:
+ *
+ * {@code {"status":"OK","data":...,"message":"...","error":"...","warnings":["..."]}}
+ *
+ * Strings are escaped as they are written to the target, without intermediate strings.
+ * Error constants are written as their error code (see {@link Check#err(Enum)}), and any other
+ * error data as its string representation.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyJson {
+
+  /**
+   * Renders reply payloads as JSON values.
+   * @param <T> the payload type.
+   */
+  @FunctionalInterface
+  public interface PayloadWriter<T> {
+
+    /**
+     * Write numbers and booleans as JSON literals, and any other payload as a JSON string
+     * with its string representation. Non-finite doubles and floats, which JSON cannot
+     * represent, are written as {@code null}.
+     */
+    PayloadWriter<Object> DEFAULT = (data, out) -> {
+      if ((data instanceof Double || data instanceof Float) && !Double.isFinite(((Number) data).doubleValue())) {
+        out.append("null");
+      } else if (data instanceof Number || data instanceof Boolean) {
+        out.append(data.toString());
+      } else {
+        string(data instanceof CharSequence ? (CharSequence) data : data.toString(), out);
+      }
+    };
+
+    /**
+     * @param data the payload. Never {@code null}.
+     * @param out  the target.
+     * @throws IOException if the target cannot be written to.
+     */
+    void write(T data, Appendable out) throws IOException;
+  }
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private ReplyJson() {}
+
+  /**
+   * Write a reply as JSON, with payloads rendered by {@link PayloadWriter#DEFAULT}.
+   * @param r   the reply. Must not be {@code null}.
+   * @param out the target, for example a {@code Writer} or a {@code StringBuilder}.
+   * @throws IOException if the target cannot be written to.
+   */
+  public static void write(Reply<?> r, Appendable out) throws IOException {
+    write(r, PayloadWriter.DEFAULT, out);
+  }
+
+  /**
+   * Write a reply as JSON.
+   * @param r       the reply. Must not be {@code null}.
+   * @param payload the payload renderer. Must not be {@code null}.
+   * @param out     the target, for example a {@code Writer} or a {@code StringBuilder}.
+   * @param <T>     the payload type.
+   * @throws IOException if the target cannot be written to.
+   */
+  public static <T> void write(Reply<? extends T> r, PayloadWriter<? super T> payload, Appendable out) throws IOException {
+    Reply.Status status = Check.notNull(r).getStatus();
+    out.append("{\"status\":\"").append(status.name()).append('"');
+    T data = r.getData();
+    if (status == Reply.Status.OK && data != null) {
+      out.append(",\"data\":");
+      payload.write(data, out);
+    }
+    out.append(",\"message\":");
+    string(r.getMessage(), out);
+    Object error = r.getError();
+    if (error != null) {
+      out.append(",\"error\":");
+      string(error instanceof Enum ? Check.err((Enum<?>) error) : error.toString(), out);
+    }
+    if (r.isWarning()) {
+      out.append(",\"warnings\":[");
+      try {
+        boolean[] first = {true};
+        r.forEachWarning(w -> {
+          try {
+            if (!first[0]) { out.append(','); }
+            string(w, out);
+            first[0] = false;
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      out.append(']');
+    }
+    out.append('}');
+  }
+
+  /**
+   * Write a reply as UTF-8 encoded JSON. The stream is flushed, but not closed.
+   * @param r       the reply. Must not be {@code null}.
+   * @param payload the payload renderer. Must not be {@code null}.
+   * @param out     the target stream.
+   * @param <T>     the payload type.
+   * @throws IOException if the target cannot be written to.
+   */
+  public static <T> void write(Reply<? extends T> r, PayloadWriter<? super T> payload, OutputStream out) throws IOException {
+    Utf8Sink sink = new Utf8Sink(out);
+    write(r, payload, sink);
+    sink.flush();
+  }
+
+  /**
+   * Write a string as an escaped JSON string literal.
+   * @param s   the string. May be {@code null}, which is written as {@code null}.
+   * @param out the target.
+   * @throws IOException if the target cannot be written to.
+   */
+  public static void string(CharSequence s, Appendable out) throws IOException {
+    if (s == null) {
+      out.append("null");
+      return;
+    }
+    out.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"': out.append("\\\""); break;
+        case '\\': out.append("\\\\"); break;
+        case '\n': out.append("\\n"); break;
+        case '\r': out.append("\\r"); break;
+        case '\t': out.append("\\t"); break;
+        case '\b': out.append("\\b"); break;
+        case '\f': out.append("\\f"); break;
+        default:
+          if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+            out.append("\\u").append(HEX[c >> 12 & 0xF]).append(HEX[c >> 8 & 0xF])
+                .append(HEX[c >> 4 & 0xF]).append(HEX[c & 0xF]);
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    out.append('"');
+  }
+
+  /** Encodes appended characters as UTF-8 into a stream, through a small internal buffer. */
+  private static final class Utf8Sink implements Appendable {
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[512];
+    private int n;
+    private char high;
+
+    Utf8Sink(OutputStream out) { this.out = Check.notNull(out); }
+
+    private void put(int b) throws IOException {
+      if (n == buf.length) { drain(); }
+      buf[n++] = (byte) b;
+    }
+
+    private void drain() throws IOException {
+      out.write(buf, 0, n);
+      n = 0;
+    }
+
+    void flush() throws IOException {
+      if (high != 0) {
+        high = 0;
+        put('?');
+      }
+      drain();
+      out.flush();
+    }
+
+    @Override public Appendable append(CharSequence csq) throws IOException {
+      return append(csq, 0, csq == null ? 4 : csq.length());
+    }
+
+    @Override public Appendable append(CharSequence csq, int start, int end) throws IOException {
+      CharSequence s = csq == null ? "null" : csq;
+      for (int i = start; i < end; i++) { append(s.charAt(i)); }
+      return this;
+    }
+
+    @Override public Appendable append(char c) throws IOException {
+      if (high != 0) {
+        char h = high;
+        high = 0;
+        if (Character.isLowSurrogate(c)) {
+          int cp = Character.toCodePoint(h, c);
+          put(0xF0 | cp >> 18);
+          put(0x80 | cp >> 12 & 0x3F);
+          put(0x80 | cp >> 6 & 0x3F);
+          put(0x80 | cp & 0x3F);
+          return this;
+        }
+        put('?');
+      }
+      if (c < 0x80) {
+        put(c);
+      } else if (c < 0x800) {
+        put(0xC0 | c >> 6);
+        put(0x80 | c & 0x3F);
+      } else if (Character.isHighSurrogate(c)) {
+        high = c;
+      } else if (Character.isLowSurrogate(c)) {
+        put('?');
+      } else {
+        put(0xE0 | c >> 12);
+        put(0x80 | c >> 6 & 0x3F);
+        put(0x80 | c & 0x3F);
+      }
+      return this;
+    }
+  }
+}
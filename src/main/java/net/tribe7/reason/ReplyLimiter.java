@@ -0,0 +1,138 @@
+package net.tribe7.reason;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * An adaptive concurrency limit for reply-returning operations, for example calls to a
+ * downstream dependency.
+ *
+ * The limit is adjusted by additive increase, multiplicative decrease (AIMD), once per sampling
+ * window of limit-many completed operations. Failed replies, exceptions, and replies slower than
+ * the latency threshold count as failed samples. If the window's ratio of failed samples is above
+ * the failure threshold, the limit is scaled down by the backoff ratio. Otherwise, if at least half
+ * of the limit was in use during the window, the limit is raised by one. A burst of concurrent
+ * failures thus lowers the limit once, and a steady rate of failures below the threshold does not
+ * lower it at all.
+ *
+ * Operations beyond the current limit are not queued: they are rejected at once, with a
+ * shared failed reply for {@link Check#LIMIT_EXCEEDED}.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyLimiter {
+
+  /** A failed sample in the window counter: the high word counts failed samples, the low word all samples. */
+  private static final long FAILED_SAMPLE = (1L << 32) + 1;
+
+  private final int minLimit, maxLimit;
+  private final double backoff, failureThreshold;
+  private final long latencyThreshold;
+
+  private final AtomicInteger limit = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger peak = new AtomicInteger();
+  private final AtomicLong window = new AtomicLong();
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Create a limiter, starting at the minimum limit, which backs off by 10% when more than
+   * 10% of the replies in a window fail. Latency is not taken into account.
+   * @param minLimit the minimum limit. Must be positive.
+   * @param maxLimit the maximum limit. Must not be smaller than {@code minLimit}.
+   */
+  public ReplyLimiter(int minLimit, int maxLimit) {
+    this(minLimit, minLimit, maxLimit, 0.9, 0.1, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param initialLimit     the initial limit, between {@code minLimit} and {@code maxLimit}.
+   * @param minLimit         the minimum limit. Must be positive.
+   * @param maxLimit         the maximum limit. Must not be smaller than {@code minLimit}.
+   * @param backoff          the ratio applied to the limit after a failing window,
+   *                         between {@code 0} and {@code 1}, exclusive.
+   * @param failureThreshold the ratio of failed samples above which a window fails,
+   *                         between {@code 0}, inclusive, and {@code 1}, exclusive.
+   * @param latencyThreshold the latency, in nanoseconds, above which replies count as failed.
+   */
+  public ReplyLimiter(int initialLimit, int minLimit, int maxLimit, double backoff,
+                      double failureThreshold, long latencyThreshold) {
+    this.minLimit = Check.inRange(minLimit, 1, Integer.MAX_VALUE);
+    this.maxLimit = Check.inRange(maxLimit, minLimit, Integer.MAX_VALUE);
+    Check.isTrue(backoff > 0 && backoff < 1, Check.OUT_OF_RANGE);
+    Check.isTrue(failureThreshold >= 0 && failureThreshold < 1, Check.OUT_OF_RANGE);
+    this.backoff = backoff;
+    this.failureThreshold = failureThreshold;
+    this.latencyThreshold = Check.nonNegative(latencyThreshold);
+    this.limit.set(Check.inRange(initialLimit, minLimit, maxLimit));
+  }
+
+  /**
+   * Run an operation, unless the limit is reached.
+   * Exceptions thrown by the operation count as failed replies, and are rethrown.
+   * @param op  the operation.
+   * @param <T> the operation's payload type.
+   * @return the operation's reply, or a failed reply for {@link Check#LIMIT_EXCEEDED}
+   * if the operation was rejected.
+   */
+  public <T> Reply<T> call(Supplier<Reply<T>> op) {
+    int n;
+    do {
+      n = inFlight.get();
+      if (n >= limit.get()) {
+        rejected.increment();
+        return Reply.badOf(Check.LIMIT_EXCEEDED);
+      }
+    } while (!inFlight.compareAndSet(n, n + 1));
+    peak.accumulateAndGet(n + 1, Math::max);
+    long t0 = System.nanoTime();
+    Reply<T> r = null;
+    try {
+      r = op.get();
+      return r;
+    } finally {
+      inFlight.decrementAndGet();
+      sample(r != null && r.isOk() && System.nanoTime() - t0 <= latencyThreshold);
+    }
+  }
+
+  private void sample(boolean ok) {
+    long w = window.addAndGet(ok ? 1 : FAILED_SAMPLE);
+    for (;;) {
+      int samples = (int) w, failed = (int) (w >>> 32);
+      if (samples < limit.get()) {
+        return;
+      }
+      if (window.compareAndSet(w, 0)) {
+        adjust(samples, failed, peak.getAndSet(0));
+        return;
+      }
+      w = window.get();
+    }
+  }
+
+  private void adjust(int samples, int failed, int used) {
+    if (failed > samples * failureThreshold) {
+      limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoff)));
+    } else {
+      limit.updateAndGet(l -> used * 2 >= l ? Math.min(maxLimit, l + 1) : l);
+    }
+  }
+
+  /** @return the current number of operations allowed to run concurrently. */
+  public int getLimit() { return limit.get(); }
+
+  /** @return the current number of running operations. */
+  public int getInFlight() { return inFlight.get(); }
+
+  /** @return the number of operations rejected so far. */
+  public long getRejected() { return rejected.sum(); }
+
+  @Override public String toString() {
+    return String.format("%s[limit: %d, inFlight: %d, rejected: %d]",
+        getClass().getSimpleName(), getLimit(), getInFlight(), getRejected());
+  }
+}
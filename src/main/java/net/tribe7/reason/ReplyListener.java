@@ -0,0 +1,35 @@
+package net.tribe7.reason;
+
+/**
+ * Observes reply outcomes and {@link Check} failures, once registered with
+ * {@link ReplyMetrics#register(ReplyListener)}.
+ *
+ * Listeners are called synchronously, on the thread producing the outcome, so they
+ * should be fast and must be thread safe. Exceptions thrown by listeners are ignored.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public interface ReplyListener {
+
+  /** Called when a reply succeeds. */
+  default void onOk() {}
+
+  /** @param error the error data of a failed reply. May be {@code null}. */
+  default void onBad(Object error) {}
+
+  /**
+   * Called when a reply fails, with the reply's message. Delegates to {@link #onBad(Object)}
+   * by default.
+   * @param error   the error data of a failed reply. May be {@code null}.
+   * @param message the reply's message, either an explicit one or the one derived from
+   *                {@code error}.
+   */
+  default void onBad(Object error, String message) { onBad(error); }
+
+  /** @param warning a warning issued for a reply. */
+  default void onWarning(String warning) {}
+
+  /** @param failure a failure created by an assertion. */
+  default void onCheckFailure(CheckException failure) {}
+}
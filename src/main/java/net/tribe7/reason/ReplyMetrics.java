@@ -0,0 +1,126 @@
+package net.tribe7.reason;
+
+import java.util.Arrays;
+
+/**
+ * Registry of {@link ReplyListener}s.
+ *
+ * With no listener registered, each reply outcome costs a single volatile read. Setting the
+ * system property {@code net.tribe7.reason.metrics} to {@code false} disables notifications
+ * altogether, through a constant the JIT folds away.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyMetrics {
+
+  /** {@code false} if notifications are disabled for the lifetime of the class loader. */
+  public static final boolean ENABLED = !"false".equals(System.getProperty("net.tribe7.reason.metrics"));
+
+  private static final class Multicast implements ReplyListener {
+    final ReplyListener[] all;
+    Multicast(ReplyListener[] all) { this.all = all; }
+    @Override public void onOk() {
+      for (ReplyListener l : all) {
+        try { l.onOk(); } catch (RuntimeException ignored) {}
+      }
+    }
+    @Override public void onBad(Object error) {
+      for (ReplyListener l : all) {
+        try { l.onBad(error); } catch (RuntimeException ignored) {}
+      }
+    }
+    @Override public void onBad(Object error, String message) {
+      for (ReplyListener l : all) {
+        try { l.onBad(error, message); } catch (RuntimeException ignored) {}
+      }
+    }
+    @Override public void onWarning(String warning) {
+      for (ReplyListener l : all) {
+        try { l.onWarning(warning); } catch (RuntimeException ignored) {}
+      }
+    }
+    @Override public void onCheckFailure(CheckException failure) {
+      for (ReplyListener l : all) {
+        try { l.onCheckFailure(failure); } catch (RuntimeException ignored) {}
+      }
+    }
+  }
+
+  private static ReplyListener[] registered = new ReplyListener[0];
+  private static volatile ReplyListener listener;
+
+  private ReplyMetrics() {}
+
+  /**
+   * @param l the listener to notify of reply outcomes. Must not be {@code null}.
+   *          Registering the same listener twice has no effect.
+   */
+  public static synchronized void register(ReplyListener l) {
+    Check.notNull(l);
+    for (ReplyListener r : registered) {
+      if (r == l) { return; }
+    }
+    ReplyListener[] ls = Arrays.copyOf(registered, registered.length + 1);
+    ls[registered.length] = l;
+    update(ls);
+  }
+
+  /**
+   * @param l the listener to stop notifying. Unknown listeners are ignored.
+   * @return {@code true} if the listener was registered, {@code false} otherwise.
+   */
+  public static synchronized boolean unregister(ReplyListener l) {
+    for (int i = 0; i < registered.length; i++) {
+      if (registered[i] == l) {
+        ReplyListener[] ls = new ReplyListener[registered.length - 1];
+        System.arraycopy(registered, 0, ls, 0, i);
+        System.arraycopy(registered, i + 1, ls, i, ls.length - i);
+        update(ls);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void update(ReplyListener[] ls) {
+    registered = ls;
+    listener = ls.length == 0 ? null : ls.length == 1 ? ls[0] : new Multicast(ls);
+  }
+
+  static void ok() {
+    ReplyListener l;
+    if (ENABLED && (l = listener) != null) {
+      try { l.onOk(); } catch (RuntimeException ignored) {}
+    }
+  }
+
+  static void bad(Object error) {
+    ReplyListener l;
+    if (ENABLED && (l = listener) != null) {
+      try { l.onBad(error, Reply.messageOf(error)); } catch (RuntimeException ignored) {}
+    }
+  }
+
+  static void bad(Object error, String message) {
+    ReplyListener l;
+    if (ENABLED && (l = listener) != null) {
+      try { l.onBad(error, message); } catch (RuntimeException ignored) {}
+    }
+  }
+
+  static void warning(String warning) {
+    ReplyListener l;
+    if (ENABLED && (l = listener) != null) {
+      try { l.onWarning(warning); } catch (RuntimeException ignored) {}
+    }
+  }
+
+  static CheckException checkFailure(CheckException failure) {
+    ReplyListener l;
+    if (ENABLED && (l = listener) != null) {
+      try { l.onCheckFailure(failure); } catch (RuntimeException ignored) {}
+    }
+    return failure;
+  }
+}
@@ -0,0 +1,379 @@
+package net.tribe7.reason;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A staged, parallel pipeline of reply-returning operations over a stream of inputs,
+ * for example to validate, transform and persist the records of a bulk import.
+ *
+ * {@code
+ *   ReplyPipeline.<Record>of(256)
+ *       .stage("validate", 2, this::validate)
+ *       .batchStage("persist", 4, 100, this::persistAll)
+ *       .run(records.iterator())
+ * }
+ *
+ * Each stage runs on its own workers, and hands successful items over to the next stage
+ * through a bounded queue, so a slow stage holds back the stages feeding it, and memory
+ * stays bounded regardless of the number of inputs. Failed items leave the pipeline at the
+ * stage which failed them. Warnings are carried over from stage to stage.
+ *
+ * Items are produced as they complete, not in input order; each item keeps its input position.
+ * Pipelines are immutable, and can be run any number of times.
+ *
+ * @param <I> the input type.
+ * @param <O> the output payload type.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyPipeline<I, O> {
+
+  /** The stage name of inputs which failed before entering the pipeline, for example {@code null} inputs. */
+  public static final String STAGE_INPUT = "input";
+
+  /**
+   * An item leaving the pipeline.
+   * @param <T> the output payload type.
+   */
+  public static final class Item<T> {
+    private final long index;
+    private String stage;
+    private Reply<?> reply;
+
+    Item(long index, String stage, Reply<?> reply) {
+      this.index = index;
+      this.stage = stage;
+      this.reply = reply;
+    }
+
+    /** @return the item's position in the input. */
+    public long getIndex() { return index; }
+
+    /** @return the name of the last stage the item went through, which failed it if failed. */
+    public String getStage() { return stage; }
+
+    /** @return the item's reply, from the last stage it went through. */
+    @SuppressWarnings("unchecked")
+    public Reply<T> getReply() { return (Reply<T>) reply; }
+
+    @Override public String toString() {
+      return String.format("%s[index: %d, stage: %s, reply: %s]", getClass().getSimpleName(), index, stage, reply);
+    }
+  }
+
+  /**
+   * The items of a pipeline run, as they complete. Closing the results before all
+   * items are consumed stops the run, and discards any pending items. Closing waits for
+   * the run's tasks to stop, even if the closing thread is interrupted.
+   *
+   * If the consuming thread is interrupted while waiting for items, {@link #hasNext()} throws
+   * an {@link IllegalStateException}, and the thread keeps its interrupt status. If a worker
+   * is interrupted, for example by {@code ExecutorService.shutdownNow()}, the run stops, and
+   * {@link #hasNext()} throws an {@link IllegalStateException} once the items already
+   * completed are consumed, instead of ending normally.
+   * @param <T> the output payload type.
+   */
+  public interface Results<T> extends Iterator<Item<T>>, AutoCloseable {
+    @Override void close();
+  }
+
+  private static final class Stage {
+    final String name;
+    final int parallelism, batchSize;
+    final Function<List<Object>, List<? extends Reply<?>>> batch;
+    final Function<Object, ? extends Reply<?>> single;
+
+    Stage(String name, int parallelism, int batchSize,
+          Function<List<Object>, List<? extends Reply<?>>> batch, Function<Object, ? extends Reply<?>> single) {
+      this.name = Check.notNull(name);
+      this.parallelism = Check.inRange(parallelism, 1, Short.MAX_VALUE);
+      this.batchSize = Check.inRange(batchSize, 1, Short.MAX_VALUE);
+      this.batch = batch;
+      this.single = single;
+    }
+
+    @SuppressWarnings("unchecked")
+    void apply(List<Item<?>> items) {
+      if (single != null) {
+        for (Item<?> it : items) {
+          it.reply = ((Reply<Object>) it.reply).flatMap(d -> (Reply<Object>) single.apply(d));
+        }
+        return;
+      }
+      List<Object> data = new ArrayList<>(items.size());
+      for (Item<?> it : items) { data.add(it.reply.getData()); }
+      List<? extends Reply<?>> out;
+      RuntimeException error = null;
+      try {
+        out = batch.apply(Collections.unmodifiableList(data));
+      } catch (RuntimeException e) {
+        out = null;
+        error = e;
+      }
+      boolean valid = out != null && out.size() == items.size();
+      for (int k = 0; k < items.size(); k++) {
+        Reply<Object> r = valid ? (Reply<Object>) out.get(k)
+            : error != null ? new Reply<>().bad(error)
+            : Reply.badOf(Check.CONDITION_NOT_SATISFIED);
+        Item<?> it = items.get(k);
+        it.reply = ((Reply<Object>) it.reply).flatMap(d -> r);
+      }
+    }
+  }
+
+  private static final Object POISON = new Object();
+
+  private final int queueCapacity;
+  private final List<Stage> stages;
+
+  private ReplyPipeline(int queueCapacity, List<Stage> stages) {
+    this.queueCapacity = queueCapacity;
+    this.stages = stages;
+  }
+
+  /**
+   * Start a pipeline definition.
+   * @param queueCapacity the capacity of the queues between stages. Must be positive.
+   * @param <T>           the input type.
+   * @return a pipeline without stages, which passes inputs through.
+   */
+  public static <T> ReplyPipeline<T, T> of(int queueCapacity) {
+    return new ReplyPipeline<>(Check.inRange(queueCapacity, 1, Integer.MAX_VALUE), Collections.emptyList());
+  }
+
+  private <R> ReplyPipeline<I, R> with(Stage s) {
+    List<Stage> ss = new ArrayList<>(stages);
+    ss.add(s);
+    return new ReplyPipeline<>(queueCapacity, Collections.unmodifiableList(ss));
+  }
+
+  /**
+   * Add a stage processing one item at a time.
+   * @param name        the stage's name, for attribution. Must not be {@code null}.
+   * @param parallelism the number of workers for the stage. Must be positive.
+   * @param fn          the stage's operation. Exceptions and errors thrown by it, or a
+   *                    {@code null} reply, fail the item.
+   * @param <R>         the stage's payload type.
+   * @return a new pipeline, with the stage added.
+   */
+  @SuppressWarnings("unchecked")
+  public <R> ReplyPipeline<I, R> stage(String name, int parallelism, Function<? super O, ? extends Reply<R>> fn) {
+    Check.notNull(fn);
+    return with(new Stage(name, parallelism, 1, null, d -> fn.apply((O) d)));
+  }
+
+  /**
+   * Add a stage processing items in batches.
+   * @param name        the stage's name, for attribution. Must not be {@code null}.
+   * @param parallelism the number of workers for the stage. Must be positive.
+   * @param batchSize   the maximum number of items per batch. Must be positive. Batches are
+   *                    not held back to fill up: each worker takes the items available.
+   * @param fn          the stage's operation, returning one reply per item, in order.
+   *                    Exceptions and errors thrown by it, or a result of the wrong size,
+   *                    fail all items of the batch.
+   * @param <R>         the stage's payload type.
+   * @return a new pipeline, with the stage added.
+   */
+  @SuppressWarnings("unchecked")
+  public <R> ReplyPipeline<I, R> batchStage(String name, int parallelism, int batchSize,
+                                            Function<? super List<O>, ? extends List<? extends Reply<R>>> fn) {
+    Check.notNull(fn);
+    return with(new Stage(name, parallelism, batchSize, d -> fn.apply((List<O>) (List<?>) d), null));
+  }
+
+  /**
+   * Run the pipeline, on virtual threads on Java 21 and later, or on a new daemon thread
+   * per task otherwise.
+   * @param input the inputs. Must not be {@code null}. Inputs are read as the pipeline
+   *              makes room for them.
+   * @return the items, as they complete.
+   */
+  public Results<O> run(Iterator<? extends I> input) {
+    return run(input, AsyncReplies.taskExecutor());
+  }
+
+  /**
+   * Run the pipeline.
+   * @param input    the inputs. Must not be {@code null}. Inputs are read as the pipeline
+   *                 makes room for them.
+   * @param executor the executor to run the pipeline on. It must run one task, plus one per
+   *                 worker of each stage, at the same time.
+   * @return the items, as they complete.
+   */
+  public Results<O> run(Iterator<? extends I> input, Executor executor) {
+    Run<O> r = new Run<>(Check.notNull(input), stages, queueCapacity);
+    Check.notNull(executor).execute(r::feed);
+    for (int s = 0; s < stages.size(); s++) {
+      for (int w = 0; w < stages.get(s).parallelism; w++) {
+        int k = s;
+        executor.execute(() -> r.work(k));
+      }
+    }
+    return r;
+  }
+
+  private static final class Run<T> implements Results<T> {
+
+    private final Iterator<?> input;
+    private final List<Stage> stages;
+    private final BlockingQueue<Object>[] queues;
+    private final AtomicInteger[] workers;
+    private volatile boolean closed;
+    private volatile InterruptedException interrupted;
+    private Item<T> next;
+    private boolean done;
+
+    @SuppressWarnings("unchecked")
+    Run(Iterator<?> input, List<Stage> stages, int capacity) {
+      this.input = input;
+      this.stages = stages;
+      this.queues = (BlockingQueue<Object>[]) new BlockingQueue<?>[stages.size() + 1];
+      this.workers = new AtomicInteger[stages.size()];
+      for (int s = 0; s < queues.length; s++) {
+        queues[s] = new ArrayBlockingQueue<>(capacity);
+        if (s < stages.size()) { workers[s] = new AtomicInteger(stages.get(s).parallelism); }
+      }
+    }
+
+    private BlockingQueue<Object> output() { return queues[stages.size()]; }
+
+    private static void putUninterruptibly(BlockingQueue<Object> q, Object o) {
+      boolean interrupted = false;
+      for (;;) {
+        try {
+          q.put(o);
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) { Thread.currentThread().interrupt(); }
+    }
+
+    void feed() {
+      long index = 0;
+      try {
+        while (!closed && input.hasNext()) {
+          Reply<Object> r = ImmutableReply.forData(input.next());
+          Item<Object> it = new Item<>(index++, STAGE_INPUT, r);
+          putUninterruptibly(r.isOk() && !stages.isEmpty() ? queues[0] : output(), it);
+        }
+      } catch (RuntimeException e) {
+        putUninterruptibly(output(), new Item<>(index, STAGE_INPUT, new Reply<>().bad(e)));
+      } finally {
+        putUninterruptibly(queues[0], POISON);
+      }
+    }
+
+    void work(int s) {
+      Stage stage = stages.get(s);
+      BlockingQueue<Object> in = queues[s], out = queues[s + 1], fail = output();
+      List<Object> taken = new ArrayList<>(stage.batchSize);
+      List<Item<?>> items = new ArrayList<>(stage.batchSize);
+      boolean stop = false, wasInterrupted = false;
+      try {
+        while (!stop) {
+          try {
+            taken.add(in.take());
+          } catch (InterruptedException e) {
+            // Stop the run, but keep draining, so upstream tasks are not left blocked.
+            if (interrupted == null) { interrupted = e; }
+            closed = true;
+            wasInterrupted = true;
+            continue;
+          }
+          if (taken.get(0) != POISON) { in.drainTo(taken, stage.batchSize - 1); }
+          for (Object o : taken) {
+            if (o == POISON) {
+              stop = true;
+            } else {
+              items.add((Item<?>) o);
+            }
+          }
+          if (stop) { putUninterruptibly(in, POISON); }
+          if (!closed && !items.isEmpty()) { process(stage, items, out, fail); }
+          taken.clear();
+          items.clear();
+        }
+      } finally {
+        if (workers[s].decrementAndGet() == 0) {
+          putUninterruptibly(out, POISON);
+        }
+        if (wasInterrupted) { Thread.currentThread().interrupt(); }
+      }
+    }
+
+    private static void process(Stage stage, List<Item<?>> items, BlockingQueue<Object> out, BlockingQueue<Object> fail) {
+      int routed = 0;
+      try {
+        stage.apply(items);
+        for (Item<?> it : items) {
+          it.stage = stage.name;
+          putUninterruptibly(it.reply.isOk() ? out : fail, it);
+          routed++;
+        }
+      } catch (Throwable t) {
+        for (Item<?> it : items.subList(routed, items.size())) {
+          it.stage = stage.name;
+          it.reply = new Reply<>().bad(t);
+          putUninterruptibly(fail, it);
+        }
+      }
+    }
+
+    @Override @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+      if (next == null && !done) {
+        Object o;
+        try {
+          o = output().take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("pipeline.interrupted", e);
+        }
+        if (o == POISON) {
+          done = true;
+        } else {
+          next = (Item<T>) o;
+        }
+      }
+      if (next == null && interrupted != null) {
+        throw new IllegalStateException("pipeline.interrupted", interrupted);
+      }
+      return next != null;
+    }
+
+    @Override public Item<T> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Item<T> it = next;
+      next = null;
+      return it;
+    }
+
+    @Override public void close() {
+      closed = true;
+      next = null;
+      boolean wasInterrupted = false;
+      while (!done) {
+        try {
+          done = output().take() == POISON;
+        } catch (InterruptedException e) {
+          wasInterrupted = true;
+        }
+      }
+      interrupted = null;
+      if (wasInterrupted) { Thread.currentThread().interrupt(); }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package net.tribe7.reason;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Records the latency of a named reply-returning operation, in nanoseconds, in separate
+ * {@link ReplyHistogram}s for successful and failed replies.
+ *
+ * {@code
+ *   long t0 = timer.start();
+ *   return timer.stop(t0, service.copy(source, dest));
+ * }
+ *
+ * Timers are created once per name, and shared. Recording does not allocate.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class ReplyTimer {
+
+  private static final Map<String, ReplyTimer> timers = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final ReplyHistogram ok = new ReplyHistogram(), bad = new ReplyHistogram();
+
+  private ReplyTimer(String name) { this.name = name; }
+
+  /**
+   * @param name the operation name. Must not be {@code null}.
+   * @return the timer for the operation.
+   */
+  public static ReplyTimer of(String name) {
+    ReplyTimer t = timers.get(Check.notNull(name));
+    return t != null ? t : timers.computeIfAbsent(name, ReplyTimer::new);
+  }
+
+  /** @return all timers, by operation name. */
+  public static Map<String, ReplyTimer> timers() { return Collections.unmodifiableMap(timers); }
+
+  /** @return the operation name. */
+  public String getName() { return name; }
+
+  /** @return the latencies of successful replies. */
+  public ReplyHistogram getOk() { return ok; }
+
+  /** @return the latencies of failed replies, or of replies with no outcome. */
+  public ReplyHistogram getBad() { return bad; }
+
+  /** @return the operation's start time, see {@link #stop(long, Reply)}. */
+  public long start() { return System.nanoTime(); }
+
+  /**
+   * Record the latency of an operation, according to the outcome of its reply.
+   * @param start the operation's start time, as returned by {@link #start()}.
+   * @param r     the operation's reply. May be {@code null}, which is recorded as a failure.
+   * @param <T>   the reply's payload type.
+   * @return the reply.
+   */
+  public <T> Reply<T> stop(long start, Reply<T> r) {
+    long elapsed = System.nanoTime() - start;
+    (r != null && r.isOk() ? ok : bad).record(elapsed);
+    return r;
+  }
+
+  /**
+   * Run and record the latency of an operation. Exceptions thrown by the operation
+   * are recorded as failures, and rethrown.
+   * @param op  the operation.
+   * @param <T> the operation's payload type.
+   * @return the operation's reply.
+   */
+  public <T> Reply<T> time(Supplier<Reply<T>> op) {
+    long t0 = start();
+    Reply<T> r = null;
+    try {
+      r = op.get();
+      return r;
+    } finally {
+      stop(t0, r);
+    }
+  }
+
+  @Override public String toString() {
+    return String.format("%s[name: %s, ok: %s, bad: %s]", getClass().getSimpleName(), name, ok, bad);
+  }
+}
@@ -0,0 +1,115 @@
+package net.tribe7.reason;
+
+import java.util.Arrays;
+
+import static net.tribe7.reason.Check.*;
+
+/**
+ * Accumulating counterpart of {@link Check}. A validator evaluates any number of rules
+ * without throwing, and records the error constant of each failed rule as a compact id.
+ * No storage is allocated until a rule fails.
+ *
+ * A validator is not thread safe, but can be reused via {@link #reset()}:
+ *
+ * {@code Reply<User> r = v.reset().notNull(u.name, MISSING_NAME).isTrue(u.age >= 0, BAD_AGE).reply(u);}
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class Validator {
+
+  private int[] failures;
+  private int count;
+
+  private Validator fail(Enum<?> error) {
+    if (failures == null) {
+      failures = new int[4];
+    } else if (count == failures.length) {
+      failures = Arrays.copyOf(failures, count * 2);
+    }
+    failures[count++] = ErrorCodes.id(error);
+    return this;
+  }
+
+  /**
+   * Non-null argument rule.
+   * @param test  the argument to check.
+   * @param error the root cause error constant.
+   *              May be {@code null}, which defaults to {@link Check#MISSING_DATA}.
+   * @return this validator.
+   */
+  public Validator notNull(Object test, Enum<?> error) {
+    return test != null ? this : fail(error == null ? MISSING_DATA : error);
+  }
+
+  /**
+   * Truth rule.
+   * @param condition the condition to test.
+   * @param whenFalse the root cause error constant.
+   *                  May be {@code null}, which defaults to {@link Check#CONDITION_NOT_SATISFIED}.
+   * @return this validator.
+   */
+  public Validator isTrue(boolean condition, Enum<?> whenFalse) {
+    return condition ? this : fail(whenFalse == null ? CONDITION_NOT_SATISFIED : whenFalse);
+  }
+
+  /**
+   * Inclusive range rule.
+   * @param value the value to check.
+   * @param lo    the lowest allowed value.
+   * @param hi    the highest allowed value.
+   * @param error the root cause error constant.
+   *              May be {@code null}, which defaults to {@link Check#OUT_OF_RANGE}.
+   * @return this validator.
+   */
+  public Validator inRange(long value, long lo, long hi, Enum<?> error) {
+    return value >= lo && value <= hi ? this : fail(error == null ? OUT_OF_RANGE : error);
+  }
+
+  /**
+   * Inclusive range rule. {@code NaN} values fail.
+   * @param value the value to check.
+   * @param lo    the lowest allowed value.
+   * @param hi    the highest allowed value.
+   * @param error the root cause error constant.
+   *              May be {@code null}, which defaults to {@link Check#OUT_OF_RANGE}.
+   * @return this validator.
+   */
+  public Validator inRange(double value, double lo, double hi, Enum<?> error) {
+    return value >= lo && value <= hi ? this : fail(error == null ? OUT_OF_RANGE : error);
+  }
+
+  /** @return {@code true} if no rule has failed, {@code false} otherwise. */
+  public boolean isValid() { return count == 0; }
+
+  /** @return the number of failed rules. */
+  public int failureCount() { return count; }
+
+  /**
+   * Clear all failed rules, so that this validator can be reused.
+   * @return this validator.
+   */
+  public Validator reset() {
+    count = 0;
+    return this;
+  }
+
+  /** @return the failed rules, in evaluation order. */
+  public Violations violations() { return new Violations(Arrays.copyOf(failures == null ? new int[0] : failures, count)); }
+
+  /**
+   * Create a reply for the validated data.
+   * @param data the validated data.
+   * @param <T>  the validated data type.
+   * @return an immutable successful reply (see {@link Reply#okOf(Object)}) if no rule has failed,
+   * or a failed reply with the {@link Violations} as its error data, and their error codes
+   * as its message.
+   */
+  public <T> Reply<T> reply(T data) {
+    if (count == 0) {
+      return Reply.okOf(data);
+    }
+    Violations v = violations();
+    return new Reply<T>().bad(v, v.toString());
+  }
+}
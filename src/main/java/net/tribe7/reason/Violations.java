@@ -0,0 +1,65 @@
+package net.tribe7.reason;
+
+import java.util.Arrays;
+
+/**
+ * An immutable list of failed validation rules, stored as compact error ids
+ * (see {@link ErrorCodes#id(Enum)}).
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public final class Violations {
+
+  private final int[] ids;
+
+  Violations(int[] ids) { this.ids = ids; }
+
+  /** @return the number of failed rules. */
+  public int size() { return ids.length; }
+
+  /**
+   * @param i the failed rule's position, in evaluation order.
+   * @return the failed rule's error id.
+   */
+  public int getId(int i) { return ids[Check.index(i, ids.length)]; }
+
+  /**
+   * @param i the failed rule's position, in evaluation order.
+   * @return the failed rule's error constant.
+   */
+  public Enum<?> getError(int i) { return ErrorCodes.forId(getId(i)); }
+
+  /**
+   * @param i the failed rule's position, in evaluation order.
+   * @return the failed rule's error code.
+   */
+  public String getCode(int i) { return ErrorCodes.code(getError(i)); }
+
+  /**
+   * @param error an error constant.
+   * @return {@code true} if any rule failed with {@code error}, {@code false} otherwise.
+   */
+  public boolean contains(Enum<?> error) {
+    int id = ErrorCodes.id(error);
+    for (int i : ids) {
+      if (i == id) { return true; }
+    }
+    return false;
+  }
+
+  @Override public boolean equals(Object o) {
+    return o instanceof Violations && Arrays.equals(ids, ((Violations) o).ids);
+  }
+
+  @Override public int hashCode() { return Arrays.hashCode(ids); }
+
+  /** @return the failed rules' error codes, separated by commas. */
+  @Override public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < ids.length; i++) {
+      sb.append(i == 0 ? "" : ", ").append(getCode(i));
+    }
+    return sb.toString();
+  }
+}
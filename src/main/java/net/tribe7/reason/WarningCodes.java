@@ -0,0 +1,77 @@
+package net.tribe7.reason;
+
+import java.util.function.Consumer;
+
+/**
+ * Warning storage for error constants: a bitmask of ordinals per enum type, chained across types.
+ * Warnings are rendered as their error codes (see {@link Check#err(Enum)}) only when read.
+ *
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+final class WarningCodes {
+
+  /** The number of constants per enum type which can be stored as bits. */
+  static final int MAX_ORDINALS = Long.SIZE;
+
+  final Class<?> type;
+  long bits;
+  final WarningCodes next;
+
+  WarningCodes(Class<?> type, long bits, WarningCodes next) {
+    this.type = type;
+    this.bits = bits;
+    this.next = next;
+  }
+
+  static boolean fits(Enum<?> e) { return e.ordinal() < MAX_ORDINALS; }
+
+  static WarningCodes of(Enum<?> e) { return new WarningCodes(e.getDeclaringClass(), 1L << e.ordinal(), null); }
+
+  /** @return this chain, or a new one, including {@code e}. */
+  WarningCodes add(Enum<?> e) {
+    for (WarningCodes c = this; c != null; c = c.next) {
+      if (c.type == e.getDeclaringClass()) {
+        c.bits |= 1L << e.ordinal();
+        return this;
+      }
+    }
+    return new WarningCodes(e.getDeclaringClass(), 1L << e.ordinal(), this);
+  }
+
+  /** @return this chain, or a new one, including all constants of {@code other}, which is left unchanged. */
+  WarningCodes addAll(WarningCodes other) {
+    WarningCodes head = this;
+    for (WarningCodes o = other; o != null; o = o.next) {
+      WarningCodes c = head;
+      while (c != null && c.type != o.type) { c = c.next; }
+      if (c != null) {
+        c.bits |= o.bits;
+      } else {
+        head = new WarningCodes(o.type, o.bits, head);
+      }
+    }
+    return head;
+  }
+
+  boolean contains(Enum<?> e) {
+    for (WarningCodes c = this; c != null; c = c.next) {
+      if (c.type == e.getDeclaringClass()) {
+        return (c.bits & (1L << e.ordinal())) != 0;
+      }
+    }
+    return false;
+  }
+
+  void forEach(Consumer<String> action) {
+    for (WarningCodes c = this; c != null; c = c.next) {
+      for (long b = c.bits; b != 0; b &= b - 1) {
+        action.accept(ErrorCodes.code(c.type, Long.numberOfTrailingZeros(b)));
+      }
+    }
+  }
+
+  WarningCodes copy() {
+    return new WarningCodes(type, bits, next == null ? null : next.copy());
+  }
+}
@@ -0,0 +1,23 @@
+package net.tribe7.reason;
+
+import java.util.List;
+
+/**
+ * A failed outcome.
+ *
+ * @param error    the error data. May be {@code null}.
+ * @param message  the error message. May be {@code null}, which defaults to {@link Reply#MESSAGE_DEFAULT}.
+ * @param warnings the warnings issued. May be {@code null}, which defaults to no warnings.
+ * @param <T>      the target type expected from a successful reply.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public record Bad<T>(Object error, String message, List<String> warnings) implements Outcome<T> {
+
+  public Bad {
+    message = Reply.messageOf(message);
+    warnings = Outcomes.copyOf(warnings);
+  }
+
+  @Override public Outcomes.Kind kind() { return Outcomes.Kind.BAD; }
+}
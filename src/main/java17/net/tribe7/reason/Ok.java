@@ -0,0 +1,22 @@
+package net.tribe7.reason;
+
+import java.util.List;
+
+/**
+ * A successful outcome.
+ *
+ * @param data     the payload. Must not be {@code null}.
+ * @param warnings the warnings issued. May be {@code null}, which defaults to no warnings.
+ * @param <T>      the payload type.
+ * @author Jesus Zazueta
+ * @since 2.1.0
+ */
+public record Ok<T>(T data, List<String> warnings) implements Outcome<T> {
+
+  public Ok {
+    Check.notNull(data);
+    warnings = Outcomes.copyOf(warnings);
+  }
+
+  @Override public Outcomes.Kind kind() { return Outcomes.Kind.OK; }
+}
@@ -2,6 +2,7 @@ package unit;
 
 import j8spec.junit.J8SpecRunner;
 import net.tribe7.reason.Check;
+import net.tribe7.reason.CheckException;
 import org.junit.runner.RunWith;
 import static j8spec.J8Spec.*;
 import static org.junit.Assert.*;
@@ -93,6 +94,114 @@ public class AssertSpec { static {
       assertTrue(e.getMessage().equals(Check.err(Check.CONDITION_NOT_SATISFIED)));
     }
   });
+
+  it("Does not compute a lazy root cause message if a check passes.", () -> {
+    Check.notNull(1, () -> { throw new AssertionError(); });
+    Check.isTrue(true, () -> { throw new AssertionError(); });
+  });
+  it("Fails that an argument is not null, with a lazy root cause message.", () -> {
+    try { Check.notNull(null, () -> "lazy oops"); fail(); }
+    catch (IllegalStateException e) { assertEquals("lazy oops", e.getMessage()); }
+  });
+  it("Fails a false argument, with a default root cause if a lazy message is missing.", () -> {
+    try { Check.isTrue(false, () -> null); fail(); }
+    catch (IllegalStateException e) { assertEquals(Check.err(Check.CONDITION_NOT_SATISFIED), e.getMessage()); }
+  });
+  it("Fails that an argument is not null, with a formatted root cause message.", () -> {
+    try { Check.notNull(null, "field %s", "name"); fail(); }
+    catch (IllegalStateException e) { assertEquals("field name", e.getMessage()); }
+    try { Check.notNull(null, "field %s.%s", "user", "name"); fail(); }
+    catch (IllegalStateException e) { assertEquals("field user.name", e.getMessage()); }
+  });
+  it("Fails a false argument, with a formatted root cause message.", () -> {
+    try { Check.isTrue(false, "%d > %d", 1, 2); fail(); }
+    catch (IllegalStateException e) { assertEquals("1 > 2", e.getMessage()); }
+    try { Check.isTrue(false, "%s%s%s", "a", "b", "c"); fail(); }
+    catch (IllegalStateException e) { assertEquals("abc", e.getMessage()); }
+  });
+  it("Keeps the error constant of lazy and formatted root cause messages.", () -> {
+    try { Check.notNull(null, () -> "lazy oops"); fail(); }
+    catch (CheckException e) { assertSame(Check.MISSING_DATA, e.getError()); }
+    try { Check.notNull(null, "field %s", "name"); fail(); }
+    catch (CheckException e) { assertSame(Check.MISSING_DATA, e.getError()); }
+    try { Check.isTrue(false, () -> "lazy oops"); fail(); }
+    catch (CheckException e) { assertSame(Check.CONDITION_NOT_SATISFIED, e.getError()); }
+    try { Check.isTrue(false, "%d > %d", 1, 2); fail(); }
+    catch (CheckException e) {
+      assertSame(Check.CONDITION_NOT_SATISFIED, e.getError());
+      assertEquals("1 > 2", e.getMessage());
+    }
+  });
+  it("Fails with a default root cause if a lazy message is blank.", () -> {
+    try { Check.notNull(null, () -> "  "); fail(); }
+    catch (CheckException e) { assertEquals(Check.err(Check.MISSING_DATA), e.getMessage()); }
+    try { Check.isTrue(false, () -> ""); fail(); }
+    catch (CheckException e) { assertEquals(Check.err(Check.CONDITION_NOT_SATISFIED), e.getMessage()); }
+  });
+  it("Checks that primitive values are within range.", () -> {
+    assertEquals(3, Check.inRange(3, 0, 3));
+    assertEquals(-1L, Check.inRange(-1L, -1L, 1L));
+    assertEquals(0.5, Check.inRange(0.5, 0, 1), 0);
+    assertEquals(0, Check.nonNegative(0));
+    assertEquals(7L, Check.nonNegative(7L));
+    assertEquals(0.0, Check.nonNegative(0.0), 0);
+    assertEquals(4, Check.index(4, 5));
+  });
+  it("Fails primitive values out of range.", () -> {
+    try { Check.inRange(4, 0, 3); fail(); }
+    catch (CheckException e) {
+      assertSame(Check.OUT_OF_RANGE, e.getError());
+      assertTrue(e.getMessage().startsWith(Check.err(Check.OUT_OF_RANGE)));
+    }
+    try { Check.inRange(Double.NaN, 0, 1); fail(); } catch (CheckException e) { assertSame(Check.OUT_OF_RANGE, e.getError()); }
+    try { Check.nonNegative(-1L); fail(); } catch (CheckException e) { assertSame(Check.OUT_OF_RANGE, e.getError()); }
+    try { Check.nonNegative(-0.1); fail(); } catch (CheckException e) { assertSame(Check.OUT_OF_RANGE, e.getError()); }
+    try { Check.index(5, 5); fail(); } catch (CheckException e) { assertSame(Check.INDEX_OUT_OF_BOUNDS, e.getError()); }
+    try { Check.index(-1, 5); fail(); } catch (CheckException e) { assertSame(Check.INDEX_OUT_OF_BOUNDS, e.getError()); }
+  });
+  it("Finds the first failing value in bulk.", () -> {
+    int[] ints = new int[5000];
+    long[] longs = new long[5000];
+    double[] doubles = new double[5000];
+    boolean[] flags = new boolean[5000];
+    java.util.Arrays.fill(flags, true);
+    assertEquals(-1, Check.indexOutOfRange(ints, 0, 0));
+    assertEquals(-1, Check.indexOutOfRange(longs, 0, 0));
+    assertEquals(-1, Check.indexOutOfRange(doubles, 0, 0));
+    assertEquals(-1, Check.indexOfFalse(flags));
+    assertEquals(-1, Check.indexOfNull(new Object[] {1, 2}));
+    ints[4000] = 7; ints[4500] = -7;
+    longs[1024] = Long.MIN_VALUE;
+    doubles[3000] = Double.NaN; doubles[3001] = 2;
+    flags[2047] = false;
+    assertEquals(4000, Check.indexOutOfRange(ints, 0, 0));
+    assertEquals(1024, Check.indexOutOfRange(longs, 0, 0));
+    assertEquals(3000, Check.indexOutOfRange(doubles, 0, 1));
+    assertEquals(2047, Check.indexOfFalse(flags));
+    assertEquals(1, Check.indexOfNull(new Object[] {1, null}));
+    assertEquals(2, Check.indexOfNull(java.util.Arrays.asList(1, 2, null)));
+  });
+  it("Fails bulk checks with the failing index.", () -> {
+    assertEquals(2, Check.allInRange(new int[] {1, 2}, 1, 2).length);
+    assertEquals(2, Check.allNotNull(new String[] {"a", "b"}).length);
+    assertEquals(1, Check.allNotNull(java.util.Collections.singletonList("a")).size());
+    Check.allTrue(new boolean[] {true});
+    try { Check.allInRange(new int[] {1, 3}, 1, 2); fail(); }
+    catch (CheckException e) {
+      assertSame(Check.OUT_OF_RANGE, e.getError());
+      assertEquals("out.of.range: index 1: 3 not in [1, 2]", e.getMessage());
+    }
+    try { Check.allInRange(new long[] {0, 1, -1}, 0, 1); fail(); }
+    catch (CheckException e) { assertTrue(e.getMessage().contains("index 2")); }
+    try { Check.allInRange(new double[] {Double.NaN}, 0, 1); fail(); }
+    catch (CheckException e) { assertTrue(e.getMessage().contains("index 0")); }
+    try { Check.allNotNull(new Object[] {1, null}); fail(); }
+    catch (CheckException e) { assertEquals("missing.data: index 1", e.getMessage()); }
+    try { Check.allNotNull(java.util.Arrays.asList(null, 1)); fail(); }
+    catch (CheckException e) { assertSame(Check.MISSING_DATA, e.getError()); }
+    try { Check.allTrue(new boolean[] {true, false}); fail(); }
+    catch (CheckException e) { assertEquals("condition.not.satisfied: index 1", e.getMessage()); }
+  });
 }}
 
 enum MyErrors { OOPS_I_FLOPPED }
@@ -0,0 +1,116 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class AsyncReplySpec { static {
+  it("runs an operation asynchronously.", () -> {
+    Reply<String> r = Reply.async(() -> Reply.okOf(Thread.currentThread().getName()))
+        .toCompletableFuture().get();
+    assertTrue(r.isOk());
+    assertNotEquals(Thread.currentThread().getName(), r.getData());
+  });
+  it("reports operation exceptions as failed replies.", () -> {
+    CompletionStage<Reply<String>> f = Reply.async(() -> { throw new IllegalStateException("oops"); });
+    Reply<String> r = f.toCompletableFuture().get();
+    assertTrue(r.isBad());
+    assertEquals("oops", r.getMessage());
+    assertFalse(f.toCompletableFuture().isCompletedExceptionally());
+  });
+  it("reports operation errors as failed replies.", () -> {
+    CompletionStage<Reply<String>> f = Reply.async(() -> { throw new AssertionError("broken"); });
+    Reply<String> r = f.toCompletableFuture().get(5, TimeUnit.SECONDS);
+    assertTrue(r.isBad());
+    assertTrue(r.getError() instanceof AssertionError);
+    assertTrue(Reply.allOf(Arrays.asList(f, Reply.async(() -> Reply.okOf("ok")))).toCompletableFuture().get().isBad());
+  });
+  it("reports missing operation replies as failed replies.", () ->
+      assertEquals(Check.MISSING_DATA, Reply.async(() -> null, Runnable::run).toCompletableFuture().get().getError())
+  );
+  it("reports rejected executions as failed replies.", () -> {
+    Executor rejecting = r -> { throw new RejectedExecutionException("busy"); };
+    Reply<String> r = Reply.async(() -> Reply.okOf("ok"), rejecting).toCompletableFuture().get();
+    assertTrue(r.isBad());
+    assertTrue(r.getError() instanceof RejectedExecutionException);
+  });
+  it("bounds the default pool to one thread per CPU before Java 21.", () -> {
+    String v = System.getProperty("java.specification.version");
+    if (!v.startsWith("1.") && Integer.parseInt(v) >= 21) { return; }
+    int cpus = Runtime.getRuntime().availableProcessors();
+    AtomicInteger running = new AtomicInteger(), peak = new AtomicInteger();
+    List<CompletionStage<Reply<Integer>>> fs = new ArrayList<>();
+    for (int i = 0; i < cpus * 4; i++) {
+      fs.add(Reply.async(() -> {
+        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(10);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return Reply.okOf(1);
+      }));
+    }
+    assertTrue(Reply.allOf(fs).toCompletableFuture().get(30, TimeUnit.SECONDS).isOk());
+    assertTrue(peak.get() <= cpus);
+  });
+  it("aggregates many eventual replies.", () -> {
+    List<CompletionStage<Reply<Integer>>> fs = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      int k = i;
+      fs.add(Reply.async(() -> new Reply<Integer>().ok(k).warning("w" + (k % 3))));
+    }
+    Reply<List<Integer>> r = Reply.allOf(fs).toCompletableFuture().get();
+    assertTrue(r.isOk());
+    assertEquals(1000, r.getData().size());
+    for (int i = 0; i < 1000; i++) { assertEquals(new Integer(i), r.getData().get(i)); }
+    assertEquals(3, r.getWarnings().size());
+  });
+  it("fails an aggregate with the first failed reply.", () -> {
+    CompletableFuture<Reply<Integer>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("late"));
+    Reply<List<Integer>> r = Reply.allOf(Arrays.asList(
+        CompletableFuture.completedFuture(Reply.okOf(1)),
+        CompletableFuture.completedFuture(Reply.<Integer>badOf(Check.GENERAL_ERROR)),
+        failed
+    )).toCompletableFuture().get();
+    assertTrue(r.isBad());
+    assertEquals(Check.GENERAL_ERROR, r.getError());
+    assertTrue(Reply.<Integer>allOf(Collections.emptyList()).toCompletableFuture().get().isOk());
+  });
+  it("selects the first successful reply.", () -> {
+    CompletableFuture<Reply<Integer>> never = new CompletableFuture<>();
+    Reply<Integer> r = Reply.anyOk(Arrays.asList(
+        CompletableFuture.completedFuture(Reply.<Integer>badOf(Check.GENERAL_ERROR)),
+        CompletableFuture.completedFuture(Reply.okOf(2)),
+        never
+    )).toCompletableFuture().get();
+    assertTrue(r.isOk());
+    assertEquals(new Integer(2), r.getData());
+  });
+  it("fails a selection when no reply succeeds.", () -> {
+    Reply<Integer> r = Reply.anyOk(Arrays.asList(
+        CompletableFuture.completedFuture(Reply.<Integer>badOf(Check.GENERAL_ERROR)),
+        CompletableFuture.completedFuture(Reply.<Integer>badOf(Check.MISSING_DATA))
+    )).toCompletableFuture().get();
+    assertEquals(Check.GENERAL_ERROR, r.getError());
+    assertTrue(Reply.<Integer>anyOk(Collections.emptyList()).toCompletableFuture().get().isBad());
+  });
+}}
@@ -0,0 +1,70 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.CheckException;
+import net.tribe7.reason.ErrorCodes;
+import org.junit.runner.RunWith;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+import static net.tribe7.reason.CheckException.Mode.*;
+
+@RunWith(J8SpecRunner.class)
+public class CheckExceptionSpec { static {
+  it("Carries the root cause constant of a failed check.", () -> {
+    try { Check.notNull(null, MyErrors.OOPS_I_FLOPPED); fail(); }
+    catch (CheckException e) {
+      assertSame(MyErrors.OOPS_I_FLOPPED, e.getError());
+      assertEquals(ErrorCodes.id(MyErrors.OOPS_I_FLOPPED), e.getErrorId());
+      assertEquals(Check.err(MyErrors.OOPS_I_FLOPPED), e.getMessage());
+      assertTrue(e.getStackTrace().length > 0);
+    }
+  });
+  it("Carries no root cause constant for a free-form message.", () -> {
+    try { Check.isTrue(false, "nope"); fail(); }
+    catch (CheckException e) {
+      assertNull(e.getError());
+      assertEquals(-1, e.getErrorId());
+      assertEquals("nope", e.getMessage());
+    }
+  });
+  it("Can be caught as an IllegalStateException.", c -> c.expected(IllegalStateException.class),
+      () -> Check.isTrue(false, MyErrors.OOPS_I_FLOPPED, SHARED));
+  it("Records causes in trace mode only.", () -> {
+    CheckException e = CheckException.of(Check.MISSING_DATA, TRACE);
+    IllegalArgumentException cause = new IllegalArgumentException();
+    assertSame(cause, e.initCause(cause).getCause());
+    try {
+      CheckException.of(Check.MISSING_DATA, STACKLESS).initCause(cause);
+      fail();
+    } catch (IllegalStateException x) { /* expected */ }
+  });
+  it("Skips stack trace capture in stackless mode.", () -> {
+    try { Check.isTrue(false, MyErrors.OOPS_I_FLOPPED, STACKLESS); fail(); }
+    catch (CheckException e) { assertEquals(0, e.getStackTrace().length); }
+  });
+  it("Reuses a preallocated failure per error constant in shared mode.", () -> {
+    CheckException e0 = CheckException.of(MyErrors.OOPS_I_FLOPPED, SHARED);
+    assertSame(e0, CheckException.of(MyErrors.OOPS_I_FLOPPED, SHARED));
+    assertNotSame(e0, CheckException.of(Check.MISSING_DATA, SHARED));
+    assertEquals(0, e0.getStackTrace().length);
+    assertEquals(Check.err(MyErrors.OOPS_I_FLOPPED), e0.getMessage());
+  });
+  it("Does not share failures with a free-form message.", () ->
+      assertNotSame(CheckException.of(null, "oops", SHARED), CheckException.of(null, "oops", SHARED))
+  );
+  it("Uses the global failure mode when none is given at the call site.", () -> {
+    Check.setFailureMode(SHARED);
+    try {
+      CheckException e0 = null, e1 = null;
+      try { Check.notNull(null); } catch (CheckException e) { e0 = e; }
+      try { Check.notNull(null); } catch (CheckException e) { e1 = e; }
+      assertSame(e0, e1);
+      assertSame(Check.MISSING_DATA, e0.getError());
+    } finally {
+      Check.setFailureMode(null);
+    }
+    assertEquals(TRACE, Check.getFailureMode());
+  });
+}}
@@ -0,0 +1,80 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.ConcurrentReply;
+import net.tribe7.reason.Reply;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+import static net.tribe7.reason.Reply.Status.*;
+
+@RunWith(J8SpecRunner.class)
+public class ConcurrentReplySpec { static {
+  it("has unknown status by default.", () -> {
+    ConcurrentReply<Integer> r = new ConcurrentReply<>();
+    assertEquals(UNKNOWN, r.getStatus());
+    assertFalse(r.isSettled());
+    assertFalse(r.isWarning());
+    assertEquals(Reply.MESSAGE_DEFAULT, r.getMessage());
+  });
+  it("keeps the first outcome it is settled with.", () -> {
+    Reply<Integer> r = new ConcurrentReply<Integer>().ok(1).bad(Check.GENERAL_ERROR).ok(2);
+    assertTrue(r.isOk());
+    assertEquals(new Integer(1), r.getData());
+    Reply<Integer> b = new ConcurrentReply<Integer>().bad(new IllegalStateException("oops"), null).ok(2);
+    assertTrue(b.isBad());
+    assertEquals("oops", b.getMessage());
+    assertNull(b.getData());
+  });
+  it("fails if it is settled with an invalid payload.", () -> {
+    Reply<Integer> r = new ConcurrentReply<Integer>().ok(null);
+    assertTrue(r.isBad());
+    assertEquals(Reply.MESSAGE_INVALID_RESPONSE_DATA, r.getMessage());
+  });
+  it("keeps warnings unique, in issue order.", () -> {
+    Reply<Integer> r = new ConcurrentReply<Integer>().warning("w0").warning("w1").warning("w0").warning(null);
+    assertArrayEquals(new Object[] {"w0", "w1", new Reply<>().warning(null).getWarnings().iterator().next()},
+        r.getWarnings().toArray());
+    assertTrue(r.toString().contains("warn: [w0, w1,"));
+  });
+  it("settles once and keeps all warnings under contention.", () -> {
+    int threads = 8, perThread = 500;
+    for (int round = 0; round < 20; round++) {
+      ConcurrentReply<Integer> r = new ConcurrentReply<>();
+      ExecutorService ex = Executors.newFixedThreadPool(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      for (int t = 0; t < threads; t++) {
+        int k = t;
+        ex.execute(() -> {
+          try { start.await(); } catch (InterruptedException e) { return; }
+          for (int i = 0; i < perThread; i++) {
+            r.warning("w" + (k * perThread + i));
+            r.warning("shared" + (i % 10));
+          }
+          if (k % 2 == 0) { r.ok(k); } else { r.bad(Check.GENERAL_ERROR); }
+        });
+      }
+      start.countDown();
+      ex.shutdown();
+      assertTrue(ex.awaitTermination(10, TimeUnit.SECONDS));
+      assertTrue(r.isSettled());
+      assertTrue(r.isOk() ^ r.isBad());
+      assertEquals(threads * perThread + 10, r.getWarnings().size());
+    }
+  });
+  it("can be chained and frozen like any other reply.", () -> {
+    Reply<Integer> r = new ConcurrentReply<String>().ok("12").warning("w0").map(Integer::parseInt);
+    assertEquals(new Integer(12), r.getData());
+    assertTrue(r.getWarnings().contains("w0"));
+    Reply<String> f = new ConcurrentReply<String>().ok("ok").warning("w0").freeze();
+    assertTrue(f.isOk());
+    assertTrue(f.getWarnings().contains("w0"));
+  });
+}}
@@ -0,0 +1,70 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.ErrorCodes;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ErrorCodesSpec { static {
+  it("Encodes an enum constant once, and reuses the encoded code.", () -> {
+    assertEquals("oops.i.flopped", ErrorCodes.code(MyErrors.OOPS_I_FLOPPED));
+    assertSame(ErrorCodes.code(MyErrors.OOPS_I_FLOPPED), ErrorCodes.code(MyErrors.OOPS_I_FLOPPED));
+    assertSame(Check.err(Check.MISSING_DATA), Check.err(Check.MISSING_DATA));
+  });
+  it("Encodes a null enum constant as the default error code.", () -> {
+    assertEquals(ErrorCodes.code(Check.GENERAL_ERROR), ErrorCodes.code(null));
+    assertEquals(ErrorCodes.id(Check.GENERAL_ERROR), ErrorCodes.id(null));
+  });
+  it("Assigns the default root cause constants their ordinal as an id.", () -> {
+    for (Check c : Check.values()) { assertEquals(c.ordinal(), ErrorCodes.id(c)); }
+  });
+  it("Keeps the ids of the default root cause constants across releases.", () -> {
+    Check[] pinned = {Check.GENERAL_ERROR, Check.CONDITION_NOT_SATISFIED, Check.MISSING_DATA,
+        Check.OUT_OF_RANGE, Check.INDEX_OUT_OF_BOUNDS, Check.LIMIT_EXCEEDED};
+    for (int id = 0; id < pinned.length; id++) {
+      assertEquals(id, ErrorCodes.id(pinned[id]));
+      assertSame(pinned[id], ErrorCodes.forId(id));
+    }
+  });
+  it("Assigns stable ids to constants of other error types.", () -> {
+    int id = ErrorCodes.id(MyErrors.OOPS_I_FLOPPED);
+    assertTrue(id >= Check.values().length);
+    assertEquals(id, ErrorCodes.id(MyErrors.OOPS_I_FLOPPED));
+    assertEquals(id, ErrorCodes.register(MyErrors.class));
+  });
+  it("Assigns ids once when a type is registered concurrently.", () -> {
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> ids = new ArrayList<>();
+      for (int i = 0; i < 8; i++) { ids.add(pool.submit(() -> ErrorCodes.register(RaceErrors.class))); }
+      for (Future<Integer> id : ids) { assertEquals(ErrorCodes.id(RaceErrors.LOST), (int) id.get()); }
+      assertSame(RaceErrors.WON, ErrorCodes.forId(ErrorCodes.id(RaceErrors.WON)));
+    } finally {
+      pool.shutdown();
+    }
+  });
+  it("Resolves error constants from their ids.", () -> {
+    assertSame(MyErrors.OOPS_I_FLOPPED, ErrorCodes.forId(ErrorCodes.id(MyErrors.OOPS_I_FLOPPED)));
+    assertSame(Check.MISSING_DATA, ErrorCodes.forId(Check.MISSING_DATA.ordinal()));
+    assertNull(ErrorCodes.forId(-1));
+    assertNull(ErrorCodes.forId(Integer.MAX_VALUE));
+  });
+  it("Resolves error constants from their codes.", () -> {
+    assertSame(Check.CONDITION_NOT_SATISFIED, ErrorCodes.forCode("condition.not.satisfied"));
+    assertSame(MyErrors.OOPS_I_FLOPPED, ErrorCodes.forCode(Check.err(MyErrors.OOPS_I_FLOPPED)));
+    assertNull(ErrorCodes.forCode("no.such.code"));
+    assertNull(ErrorCodes.forCode(null));
+  });
+}}
+
+enum RaceErrors { LOST, WON }
@@ -0,0 +1,61 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.CheckException;
+import net.tribe7.reason.ConcurrentReply;
+import net.tribe7.reason.ErrorPolicy;
+import net.tribe7.reason.ErrorSnapshot;
+import net.tribe7.reason.Reply;
+import org.junit.runner.RunWith;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ErrorSnapshotSpec { static {
+  it("summarizes a throwable.", () -> {
+    IllegalStateException e = new IllegalStateException("oops", new RuntimeException("cause"));
+    ErrorSnapshot s = ErrorSnapshot.of(e, 2);
+    assertEquals(IllegalStateException.class.getName(), s.getType());
+    assertEquals("oops", s.getMessage());
+    assertNull(s.getCode());
+    assertEquals(2, s.getStackTrace().length);
+    assertEquals(e.getStackTrace()[0], s.getStackTrace()[0]);
+    assertEquals(e.toString(), s.toString());
+    assertEquals(0, ErrorSnapshot.of(e, 0).getStackTrace().length);
+    assertEquals("missing.data", ErrorSnapshot.of(CheckException.of(Check.MISSING_DATA, null), 1).getCode());
+  });
+  it("rejects a missing throwable, whatever the number of frames.", () -> {
+    for (int frames : new int[] {0, 2}) {
+      try { ErrorSnapshot.of(null, frames); fail(); }
+      catch (CheckException e) { assertSame(Check.MISSING_DATA, e.getError()); }
+    }
+  });
+  it("keeps the original errors of failed replies by default.", () -> {
+    IllegalStateException e = new IllegalStateException("oops");
+    assertSame(ErrorPolicy.RETAIN, Reply.getErrorPolicy());
+    assertSame(e, new Reply<Integer>().bad(e).getError());
+  });
+  it("keeps snapshots of thrown errors under a compacting policy.", () -> {
+    Reply.setErrorPolicy(ErrorPolicy.compact(3));
+    try {
+      IllegalStateException e = new IllegalStateException("oops");
+      Reply<Integer> r = new Reply<Integer>().bad(e);
+      assertTrue(r.getError() instanceof ErrorSnapshot);
+      assertEquals("oops", r.getMessage());
+      assertEquals(3, ((ErrorSnapshot) r.getError()).getStackTrace().length);
+      assertEquals("explained", new Reply<Integer>().bad(e, "explained").getMessage());
+      assertTrue(Reply.badOf(e).getError() instanceof ErrorSnapshot);
+      assertTrue(Reply.badOf(e, "explained").getError() instanceof ErrorSnapshot);
+      assertTrue(new ConcurrentReply<Integer>().bad(e).getError() instanceof ErrorSnapshot);
+      assertEquals("oops", Reply.attempt(() -> { throw new java.io.IOException("oops"); }).getMessage());
+      assertSame(Check.MISSING_DATA, new Reply<Integer>().bad(Check.MISSING_DATA).getError());
+      assertEquals("data", new Reply<Integer>().bad("data").getError());
+      assertTrue(r.toString().contains("err: java.lang.IllegalStateException: oops"));
+    } finally {
+      Reply.setErrorPolicy(null);
+    }
+    assertSame(ErrorPolicy.RETAIN, Reply.getErrorPolicy());
+  });
+}}
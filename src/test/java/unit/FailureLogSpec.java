@@ -0,0 +1,89 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.ConcurrentReply;
+import net.tribe7.reason.FailureLog;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyMetrics;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class FailureLogSpec { static {
+  it("keeps a summary of failed replies.", () -> {
+    FailureLog log = new FailureLog(3);
+    assertEquals(4, log.capacity());
+    log.record(Reply.okOf(1));
+    log.record(new Reply<Integer>().bad(Check.MISSING_DATA).warning("w0"));
+    log.record(new Reply<Integer>().bad(new IllegalStateException("oops")));
+    List<FailureLog.Entry> es = log.snapshot();
+    assertEquals(2, es.size());
+    assertEquals(Check.MISSING_DATA, es.get(0).getError());
+    assertEquals("missing.data", es.get(0).getErrorType());
+    assertTrue(es.get(0).getWarnings().contains("w0"));
+    assertNull(es.get(1).getError());
+    assertEquals(IllegalStateException.class.getName(), es.get(1).getErrorType());
+    assertEquals("oops", es.get(1).getMessage());
+    assertFalse(es.get(1).isCheckFailure());
+    assertTrue(es.get(1).getTimestamp() > 0);
+  });
+  it("keeps only the most recent failures.", () -> {
+    FailureLog log = new FailureLog(4);
+    IntStream.range(0, 10).forEach(i -> log.record(new Reply<Integer>().bad(Check.GENERAL_ERROR, "f" + i)));
+    List<FailureLog.Entry> es = log.snapshot();
+    assertEquals(4, es.size());
+    assertEquals(6, es.get(0).getSequence());
+    assertEquals("f9", es.get(3).getMessage());
+    assertEquals(10, log.getRecorded());
+  });
+  it("records failures from many threads.", () -> {
+    FailureLog log = new FailureLog(64);
+    IntStream.range(0, 10_000).parallel().forEach(i -> log.onBad(Check.OUT_OF_RANGE));
+    assertEquals(10_000, log.getRecorded());
+    List<FailureLog.Entry> es = log.snapshot();
+    assertTrue(es.size() <= 64 && es.size() + log.getDropped() >= 64);
+    for (FailureLog.Entry e : es) { assertEquals("out.of.range", e.getMessage()); }
+  });
+  it("records the explicit messages of failed replies as a listener.", () -> {
+    FailureLog log = new FailureLog(8);
+    ReplyMetrics.register(log);
+    try {
+      new Reply<Integer>().bad(Check.MISSING_DATA, "explicit");
+      Reply.badOf(Check.MISSING_DATA, "explicit too");
+      new ConcurrentReply<Integer>().bad(Check.MISSING_DATA, "explicit, concurrently");
+      new Reply<Integer>().bad(Check.MISSING_DATA, " ");
+    } finally {
+      ReplyMetrics.unregister(log);
+    }
+    List<FailureLog.Entry> es = log.snapshot();
+    assertEquals(4, es.size());
+    assertEquals("explicit", es.get(0).getMessage());
+    assertEquals("explicit too", es.get(1).getMessage());
+    assertEquals("explicit, concurrently", es.get(2).getMessage());
+    assertEquals("missing.data", es.get(3).getMessage());
+  });
+  it("records assertion failures as a listener.", () -> {
+    FailureLog log = new FailureLog(8);
+    ReplyMetrics.register(log);
+    try {
+      Check.isTrue(false, "x must be %s", 1);
+    } catch (IllegalStateException e) {
+      // expected
+    } finally {
+      ReplyMetrics.unregister(log);
+    }
+    List<FailureLog.Entry> es = log.snapshot();
+    assertEquals(1, es.size());
+    assertTrue(es.get(0).isCheckFailure());
+    assertEquals("x must be 1", es.get(0).getMessage());
+    StringBuilder sb = new StringBuilder();
+    log.dump(sb);
+    assertTrue(sb.toString().contains("x must be 1"));
+  });
+}}
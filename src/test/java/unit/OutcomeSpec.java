@@ -0,0 +1,61 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Bad;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Ok;
+import net.tribe7.reason.Outcome;
+import net.tribe7.reason.Reply;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class OutcomeSpec { static {
+  it("is successful for a successful reply.", () -> {
+    Outcome<Integer> o = new Reply<Integer>().ok(1).warning("w0").outcome();
+    assertTrue(o instanceof Ok);
+    assertEquals(Integer.valueOf(1), ((Ok<Integer>) o).data());
+    assertEquals(Collections.singletonList("w0"), o.warnings());
+    assertEquals(new Ok<>(1, Collections.singletonList("w0")), o);
+  });
+  it("is failed for a failed reply.", () -> {
+    Outcome<Integer> o = Reply.<Integer>badOf(Check.MISSING_DATA).outcome();
+    assertTrue(o instanceof Bad);
+    assertEquals(Check.MISSING_DATA, ((Bad<Integer>) o).error());
+    assertEquals("missing.data", ((Bad<Integer>) o).message());
+    assertTrue(o.warnings().isEmpty());
+    assertEquals(Reply.MESSAGE_DEFAULT, new Bad<Integer>(null, " ", null).message());
+  });
+  it("is not available for a reply without outcome.", c -> c.expected(IllegalStateException.class), () -> {
+    new Reply<Integer>().outcome();
+  });
+  it("does not accept a missing payload.", c -> c.expected(IllegalStateException.class), () -> {
+    new Ok<Integer>(null, null);
+  });
+  it("keeps unmodifiable copies of its warnings.", () -> {
+    List<String> ws = new ArrayList<>(Arrays.asList("w0", "w1"));
+    Ok<Integer> o = new Ok<>(1, ws);
+    ws.add("w2");
+    assertEquals(Arrays.asList("w0", "w1"), o.warnings());
+    assertSame(o.warnings(), new Ok<>(2, o.warnings()).warnings());
+    try { o.warnings().add("w3"); fail(); } catch (UnsupportedOperationException e) { /* expected */ }
+  });
+  it("converts back to an immutable reply.", () -> {
+    Reply<Integer> ok = Reply.of(new Ok<>(1, Arrays.asList("w0", "w1")));
+    assertTrue(ok.isOk());
+    assertEquals(Integer.valueOf(1), ok.getData());
+    assertEquals(2, ok.getWarnings().size());
+    Reply<Integer> bad = Reply.of(new Reply<Integer>().bad(Check.OUT_OF_RANGE, "too large").outcome());
+    assertTrue(bad.isBad());
+    assertEquals(Check.OUT_OF_RANGE, bad.getError());
+    assertEquals("too large", bad.getMessage());
+    assertSame(bad, bad.freeze());
+  });
+}}
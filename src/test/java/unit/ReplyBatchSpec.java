@@ -0,0 +1,102 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyBatch;
+import net.tribe7.reason.ReplyCollectors;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyBatchSpec { static {
+  it("is empty by default.", () -> {
+    ReplyBatch<Integer> b = new ReplyBatch<>();
+    assertEquals(0, b.size());
+    assertTrue(b.okData().isEmpty());
+    assertTrue(b.toReply().isOk());
+  });
+  it("keeps reply outcomes and counts by status.", () -> {
+    ReplyBatch<Integer> b = new ReplyBatch<Integer>()
+        .add(Reply.okOf(1))
+        .add(new Reply<Integer>().bad(Check.MISSING_DATA, "no data").warning("w0"))
+        .add(new Reply<>())
+        .add(new Reply<Integer>().ok(4).warning("w1"));
+    assertEquals(4, b.size());
+    assertEquals(2, b.okCount());
+    assertEquals(1, b.badCount());
+    assertEquals(2, b.warningCount());
+    assertEquals(Reply.Status.UNKNOWN, b.getStatus(2));
+    assertTrue(b.isOk(0));
+    assertTrue(b.isBad(1));
+    assertTrue(b.isWarning(1));
+    assertEquals(new Integer(4), b.getData(3));
+    assertNull(b.getData(1));
+    assertEquals(Check.MISSING_DATA, b.getError(1));
+    assertEquals("no data", b.getMessage(1));
+    assertEquals(Reply.MESSAGE_DEFAULT, b.getMessage(0));
+    assertEquals(2, b.getWarnings().size());
+    Reply<Integer> r = b.get(1);
+    assertTrue(r.isBad());
+    assertEquals("no data", r.getMessage());
+    assertTrue(r.getWarnings().contains("w0"));
+    assertEquals(2, b.okData().size());
+  });
+  it("rejects positions outside of the batch.", c -> c.expected(IllegalStateException.class),
+      () -> new ReplyBatch<Integer>().add(Reply.okOf(1)).isOk(1));
+  it("collects a parallel stream in encounter order.", () -> {
+    ReplyBatch<Integer> b = IntStream.range(0, 100_000).parallel()
+        .mapToObj(i -> i % 10 == 0 ? Reply.<Integer>badOf(Check.GENERAL_ERROR) : new Reply<Integer>().ok(i))
+        .collect(ReplyCollectors.toBatch());
+    assertEquals(100_000, b.size());
+    assertEquals(10_000, b.badCount());
+    assertEquals(90_000, b.okCount());
+    for (int i = 0; i < b.size(); i++) {
+      assertEquals(i % 10 != 0, b.isOk(i));
+      if (b.isOk(i)) { assertEquals(new Integer(i), b.getData(i)); }
+    }
+  });
+  it("partitions replies by outcome.", () -> {
+    Map<Boolean, ReplyBatch<Integer>> p = IntStream.range(0, 10_000).parallel()
+        .mapToObj(i -> i % 4 == 0
+            ? new Reply<Integer>().bad(Check.MISSING_DATA, "m" + i).warning("odd")
+            : new Reply<Integer>().ok(i).warning("w" + i % 2))
+        .collect(ReplyCollectors.partition());
+    ReplyBatch<Integer> ok = p.get(true), bad = p.get(false);
+    assertEquals(7500, ok.size());
+    assertEquals(7500, ok.okCount());
+    assertEquals(new Integer(1), ok.getData(0));
+    assertEquals(new Integer(9999), ok.getData(7499));
+    assertEquals(2, ok.getWarnings().size());
+    assertEquals(2500, bad.size());
+    assertEquals(2500, bad.badCount());
+    assertEquals("m9996", bad.getMessage(2499));
+    assertEquals(1, bad.getWarnings().size());
+    Map<Boolean, ReplyBatch<Integer>> empty = IntStream.range(0, 0)
+        .mapToObj(Reply::okOf).collect(ReplyCollectors.partition());
+    assertEquals(0, empty.get(true).size());
+    assertEquals(0, empty.get(false).size());
+  });
+  it("collects successful replies into a single reply.", () -> {
+    Reply<List<Integer>> r = IntStream.range(0, 1000).parallel()
+        .mapToObj(i -> new Reply<Integer>().ok(i).warning("w" + i % 2))
+        .collect(ReplyCollectors.toReply());
+    assertTrue(r.isOk());
+    assertEquals(1000, r.getData().size());
+    assertEquals(new Integer(999), r.getData().get(999));
+    assertEquals(2, r.getWarnings().size());
+  });
+  it("collects failed replies into a single failed reply.", () -> {
+    Reply<List<Integer>> r = IntStream.range(0, 1000).parallel()
+        .mapToObj(i -> i == 500 ? Reply.<Integer>badOf(Check.MISSING_DATA) : Reply.okOf(i))
+        .collect(ReplyCollectors.toReply());
+    assertTrue(r.isBad());
+    assertEquals(Check.MISSING_DATA, r.getError());
+  });
+}}
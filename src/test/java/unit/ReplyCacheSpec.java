@@ -0,0 +1,143 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyCache;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyCacheSpec { static {
+  it("caches successful replies until they expire.", () -> {
+    AtomicLong now = new AtomicLong();
+    AtomicInteger loads = new AtomicInteger();
+    ReplyCache<String, Integer> c = new ReplyCache<>(10, 10, 0, TimeUnit.NANOSECONDS, now::get);
+    Reply<Integer> r = c.get("a", k -> new Reply<Integer>().ok(loads.incrementAndGet()));
+    assertSame(r, c.get("a", k -> Reply.okOf(loads.incrementAndGet())));
+    now.set(10);
+    assertEquals(Integer.valueOf(2), c.get("a", k -> Reply.okOf(loads.incrementAndGet())).getData());
+    ReplyCache.Stats s = c.stats();
+    assertEquals(1, s.getHits());
+    assertEquals(2, s.getMisses());
+    assertEquals(1, s.getExpirations());
+    assertEquals(1, s.getSize());
+  });
+  it("caches failed replies for their own time to live.", () -> {
+    AtomicLong now = new AtomicLong();
+    ReplyCache<String, Integer> c = new ReplyCache<>(10, 100, 5, TimeUnit.NANOSECONDS, now::get);
+    assertTrue(c.get("a", k -> { throw new IllegalStateException(); }).isBad());
+    assertNotNull(c.getIfPresent("a"));
+    now.set(5);
+    assertNull(c.getIfPresent("a"));
+    ReplyCache<String, Integer> noBad = new ReplyCache<>(10, 100, 0, TimeUnit.NANOSECONDS, now::get);
+    assertEquals(Check.MISSING_DATA, noBad.get("a", k -> null).getError());
+    assertEquals(0, noBad.size());
+    noBad.put("b", new Reply<>());
+    assertEquals(0, noBad.size());
+  });
+  it("evicts least recently used entries.", () -> {
+    ReplyCache<Integer, Integer> c = new ReplyCache<>(2, 1, 1, TimeUnit.HOURS);
+    c.put(1, Reply.okOf(1));
+    c.put(2, Reply.okOf(2));
+    c.getIfPresent(1);
+    c.put(3, Reply.okOf(3));
+    assertNotNull(c.getIfPresent(1));
+    assertNull(c.getIfPresent(2));
+    assertEquals(1, c.stats().getEvictions());
+    c.invalidate(1);
+    assertEquals(1, c.size());
+    c.invalidateAll();
+    assertEquals(0, c.size());
+  });
+  it("runs concurrent misses on a key once.", () -> {
+    ReplyCache<String, Integer> c = new ReplyCache<>(10, 1, 0, TimeUnit.HOURS);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    List<Thread> ts = new ArrayList<>();
+    List<Reply<Integer>> out = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread t = new Thread(() -> {
+        Reply<Integer> r = c.get("a", k -> {
+          try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+          return Reply.okOf(loads.incrementAndGet());
+        });
+        synchronized (out) { out.add(r); }
+      });
+      ts.add(t);
+      t.start();
+    }
+    Thread.sleep(50);
+    release.countDown();
+    for (Thread t : ts) { t.join(); }
+    assertEquals(1, loads.get());
+    assertEquals(4, out.size());
+    for (Reply<Integer> r : out) { assertSame(out.get(0), r); }
+  });
+  it("does not cache loads invalidated while in progress.", () -> {
+    ReplyCache<String, Integer> c = new ReplyCache<>(10, 1, 0, TimeUnit.HOURS);
+    CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+    List<Reply<Integer>> out = new ArrayList<>();
+    Thread t = new Thread(() -> {
+      Reply<Integer> r = c.get("a", k -> {
+        started.countDown();
+        try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        return Reply.okOf(1);
+      });
+      synchronized (out) { out.add(r); }
+    });
+    t.start();
+    started.await();
+    c.invalidate("a");
+    assertEquals(Integer.valueOf(2), c.get("a", k -> Reply.okOf(2)).getData());
+    c.invalidate("a");
+    release.countDown();
+    t.join();
+    assertEquals(Integer.valueOf(1), out.get(0).getData());
+    assertNull(c.getIfPresent("a"));
+    assertEquals(0, c.size());
+  });
+  it("loads each key once under contention.", () -> {
+    ReplyCache<Integer, Integer> c = new ReplyCache<>(1_000, 1, 0, TimeUnit.HOURS);
+    AtomicInteger loads = new AtomicInteger();
+    List<Thread> ts = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Thread t = new Thread(() -> {
+        for (int k = 0; k < 1_000; k++) {
+          c.get(k, key -> Reply.okOf(loads.incrementAndGet()));
+        }
+      });
+      ts.add(t);
+      t.start();
+    }
+    for (Thread t : ts) { t.join(); }
+    assertEquals(1_000, loads.get());
+    assertEquals(8_000, c.stats().getHits() + c.stats().getMisses());
+  });
+  it("bounds large, segmented caches to their maximum size.", () -> {
+    ReplyCache<Integer, Integer> c = new ReplyCache<>(1_000, 1, 1, TimeUnit.HOURS);
+    for (int k = 0; k < 5_000; k++) { c.put(k, Reply.okOf(k)); }
+    assertEquals(1_000, c.size());
+    assertEquals(4_000, c.stats().getEvictions());
+    assertNotNull(c.getIfPresent(4_999));
+  });
+  it("fails loads which look up their own key, instead of waiting for themselves.", () -> {
+    ReplyCache<String, Integer> c = new ReplyCache<>(10, 1, 1, TimeUnit.HOURS);
+    Reply<Integer> r = c.get("a", k -> {
+      Reply<Integer> inner = c.get("a", k2 -> Reply.okOf(2));
+      assertEquals(Check.CONDITION_NOT_SATISFIED, inner.getError());
+      return Reply.okOf(1);
+    });
+    assertEquals(Integer.valueOf(1), r.getData());
+    assertSame(r, c.getIfPresent("a"));
+  });
+}}
@@ -0,0 +1,117 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.CheckException;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyCodec;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyCodecSpec { static {
+  ReplyCodec<String> codec = new ReplyCodec<>(ReplyCodec.PayloadCodec.STRING);
+  ReplyCodec.PayloadCodec<String> exploding = new ReplyCodec.PayloadCodec<String>() {
+    @Override public void encode(String value, ByteBuffer out) { ReplyCodec.PayloadCodec.STRING.encode(value, out); }
+    @Override public String decode(ByteBuffer in) { throw new AssertionError("payload decoded"); }
+  };
+
+  it("round-trips a successful reply, including warnings.", () -> {
+    ByteBuffer b = codec.encode(new Reply<String>().ok("h\u00e9llo, w\u00f6rld \ud83d\ude00").warning("w0").warning("w\u00e4rn"), ByteBuffer.allocate(256));
+    b.flip();
+    Reply<String> r = codec.decode(b);
+    assertFalse(b.hasRemaining());
+    assertTrue(r.isOk());
+    assertEquals("h\u00e9llo, w\u00f6rld \ud83d\ude00", r.getData());
+    assertEquals(Reply.MESSAGE_DEFAULT, r.getMessage());
+    assertNull(r.getError());
+    assertTrue(r.isWarning());
+    assertEquals(2, r.getWarnings().size());
+    assertTrue(r.getWarnings().contains("w\u00e4rn"));
+  });
+  it("round-trips failed replies.", () -> {
+    ByteBuffer b = ByteBuffer.allocateDirect(512);
+    codec.encode(Reply.badOf(Check.MISSING_DATA), b);
+    codec.encode(Reply.badOf(MyErrors.OOPS_I_FLOPPED, "custom"), b);
+    codec.encode(new Reply<String>().bad(new IllegalStateException("oops")), b);
+    codec.encode(new Reply<>(), b);
+    b.flip();
+    Reply<String> r0 = codec.decode(b), r1 = codec.decode(b), r2 = codec.decode(b), r3 = codec.decode(b);
+    assertFalse(b.hasRemaining());
+    assertTrue(r0.isBad());
+    assertSame(Check.MISSING_DATA, r0.getError());
+    assertEquals(Check.err(Check.MISSING_DATA), r0.getMessage());
+    assertSame(MyErrors.OOPS_I_FLOPPED, r1.getError());
+    assertEquals("custom", r1.getMessage());
+    assertEquals("oops", r2.getMessage());
+    assertEquals(new IllegalStateException("oops").toString(), r2.getError());
+    assertEquals(Reply.Status.UNKNOWN, r3.getStatus());
+    assertFalse(r3.isWarning());
+  });
+  it("encodes error constants compactly.", () -> {
+    ByteBuffer b = codec.encode(Reply.badOf(Check.MISSING_DATA), ByteBuffer.allocate(64));
+    assertEquals(2, b.position());
+  });
+  it("decodes payloads only on demand.", () -> {
+    ReplyCodec<String> lazy = new ReplyCodec<>(exploding);
+    ByteBuffer b = lazy.encode(new Reply<String>().ok("x").warning("w0"), ByteBuffer.allocate(64));
+    b.flip();
+    Reply<String> r = lazy.decode(b);
+    assertTrue(r.isOk());
+    assertTrue(r.isWarning());
+    try { r.getData(); fail(); } catch (AssertionError e) { assertEquals("payload decoded", e.getMessage()); }
+  });
+  it("decodes immutable replies, which can still be chained.", () -> {
+    ByteBuffer b = new ReplyCodec<>(ReplyCodec.PayloadCodec.LONG).encode(new Reply<Long>().ok(42L).warning("w0"), ByteBuffer.allocate(64));
+    b.flip();
+    Reply<Long> r = new ReplyCodec<>(ReplyCodec.PayloadCodec.LONG).decode(b);
+    try { r.warning("w1"); fail(); } catch (UnsupportedOperationException e) { assertEquals(1, r.getWarnings().size()); }
+    Reply<Long> m = r.map(l -> l + 1);
+    assertEquals(new Long(43), m.getData());
+    assertTrue(m.getWarnings().contains("w0"));
+    assertTrue(r.freeze().isOk());
+  });
+  it("round-trips through little-endian buffers, regardless of later changes to them.", () -> {
+    ByteBuffer b = ByteBuffer.allocate(256).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    codec.encode(new Reply<String>().ok("hello").warning("w0").warning("w1"), b);
+    codec.encode(Reply.badOf(MyErrors.OOPS_I_FLOPPED, "custom"), b);
+    b.flip();
+    Reply<String> r0 = codec.decode(b), r1 = codec.decode(b);
+    assertFalse(b.hasRemaining());
+    b.clear().limit(0);
+    b.order(java.nio.ByteOrder.BIG_ENDIAN);
+    assertEquals("hello", r0.getData());
+    assertEquals(2, r0.getWarnings().size());
+    assertTrue(r0.getWarnings().contains("w1"));
+    assertSame(MyErrors.OOPS_I_FLOPPED, r1.getError());
+    assertEquals("custom", r1.getMessage());
+  });
+  it("rejects truncated input.", c -> c.expected(java.nio.BufferUnderflowException.class), () -> {
+    ByteBuffer b = codec.encode(new Reply<String>().ok("hello"), ByteBuffer.allocate(64));
+    b.flip();
+    b.limit(b.limit() - 1);
+    codec.decode(b);
+  });
+  it("decodes unknown error ids as general errors.", () -> {
+    ByteBuffer b = ByteBuffer.wrap(new byte[] {0x06, (byte) 0xE8, 0x07});
+    Reply<String> r = codec.decode(b);
+    assertTrue(r.isBad());
+    assertNull(r.getError());
+    assertEquals(Check.err(Check.GENERAL_ERROR), r.getMessage());
+  });
+  it("rejects malformed UTF-8 strings.", () -> {
+    ByteBuffer b = codec.encode(new Reply<String>().ok("\u00e9"), ByteBuffer.allocate(64));
+    b.flip();
+    b.put(b.limit() - 1, (byte) 'x');
+    try {
+      codec.decode(b).getData();
+      fail();
+    } catch (CheckException e) {
+      assertEquals(Check.OUT_OF_RANGE, e.getError());
+    }
+  });
+}}
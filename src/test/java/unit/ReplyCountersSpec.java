@@ -0,0 +1,95 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.CheckException;
+import net.tribe7.reason.ConcurrentReply;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyCounters;
+import net.tribe7.reason.ReplyListener;
+import net.tribe7.reason.ReplyMetrics;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyCountersSpec { static {
+  it("counts reply outcomes, warnings and check failures.", () -> {
+    ReplyCounters c = new ReplyCounters();
+    ReplyMetrics.register(c);
+    try {
+      new Reply<String>().ok("a").warning("w0");
+      new Reply<String>().bad(Check.MISSING_DATA);
+      new Reply<String>().bad(new IllegalStateException("oops"), "failed");
+      Reply.okOf(1);
+      Reply.badOf(Check.MISSING_DATA);
+      Reply.badOf(Check.MISSING_DATA, "explained");
+      new ConcurrentReply<String>().ok("b").bad(Check.GENERAL_ERROR);
+      try {
+        Check.isTrue(false);
+        fail();
+      } catch (IllegalStateException e) { /* expected */ }
+    } finally {
+      assertTrue(ReplyMetrics.unregister(c));
+    }
+    new Reply<String>().ok("ignored");
+    ReplyCounters.Snapshot s = c.snapshot();
+    assertEquals(3, s.getOk());
+    assertEquals(4, s.getBad());
+    assertEquals(1, s.getWarnings());
+    assertEquals(1, s.getCheckFailures());
+    assertEquals(Long.valueOf(3), s.getErrors().get("missing.data"));
+    assertEquals(Long.valueOf(1), s.getErrors().get(IllegalStateException.class.getName()));
+    assertEquals(Long.valueOf(1), s.getCheckErrors().get("condition.not.satisfied"));
+  });
+  it("counts carried warnings only once.", () -> {
+    ReplyCounters c = new ReplyCounters();
+    ReplyMetrics.register(c);
+    try {
+      new Reply<Integer>().ok(1).warning("w0").warn(Check.GENERAL_ERROR)
+          .map(i -> i + 1).flatMap(i -> Reply.okOf(i * 2)).recover(e -> 0);
+    } finally {
+      assertTrue(ReplyMetrics.unregister(c));
+    }
+    assertEquals(2, c.snapshot().getWarnings());
+  });
+  it("counts check failures without error constants under one name, in all modes.", () -> {
+    ReplyCounters c = new ReplyCounters();
+    c.onCheckFailure(new CheckException(null, "a"));
+    c.onCheckFailure(CheckException.of(null, "b", CheckException.Mode.STACKLESS));
+    c.onCheckFailure(CheckException.of(null, "c", CheckException.Mode.SHARED));
+    assertEquals(Collections.singletonMap(CheckException.class.getName(), 3L), c.snapshot().getCheckErrors());
+  });
+  it("resets its counters on request.", () -> {
+    ReplyCounters c = new ReplyCounters();
+    c.onBad(Check.OUT_OF_RANGE);
+    assertEquals(1, c.snapshotAndReset().getBad());
+    ReplyCounters.Snapshot s = c.snapshot();
+    assertEquals(0, s.getBad());
+    assertEquals(Long.valueOf(0), s.getErrors().get("out.of.range"));
+  });
+  it("notifies all registered listeners, and ignores listener failures.", () -> {
+    AtomicInteger n = new AtomicInteger();
+    ReplyListener failing = new ReplyListener() {
+      @Override public void onOk() { throw new IllegalStateException(); }
+    };
+    ReplyListener counting = new ReplyListener() {
+      @Override public void onOk() { n.incrementAndGet(); }
+    };
+    ReplyMetrics.register(failing);
+    ReplyMetrics.register(counting);
+    ReplyMetrics.register(counting);
+    try {
+      assertTrue(new Reply<Integer>().ok(1).isOk());
+    } finally {
+      ReplyMetrics.unregister(failing);
+      ReplyMetrics.unregister(counting);
+    }
+    assertFalse(ReplyMetrics.unregister(counting));
+    assertEquals(1, n.get());
+  });
+}}
@@ -0,0 +1,82 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.ConcurrentReply;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyCodec;
+import net.tribe7.reason.ReplyJson;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyJsonSpec { static {
+  it("writes a successful reply.", () -> {
+    StringBuilder sb = new StringBuilder();
+    ReplyJson.write(new Reply<Integer>().ok(42).warning("w0"), sb);
+    assertEquals("{\"status\":\"OK\",\"data\":42,\"message\":\"no.additional.information\",\"warnings\":[\"w0\"]}", sb.toString());
+  });
+  it("writes a failed reply.", () -> {
+    StringWriter w = new StringWriter();
+    ReplyJson.write(Reply.badOf(Check.MISSING_DATA), w);
+    assertEquals("{\"status\":\"BAD\",\"message\":\"missing.data\",\"error\":\"missing.data\"}", w.toString());
+  });
+  it("writes non-finite numbers as null.", () -> {
+    for (Object n : new Object[] {Double.NaN, Double.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY}) {
+      StringBuilder sb = new StringBuilder();
+      ReplyJson.write(Reply.okOf(n), sb);
+      assertEquals("{\"status\":\"OK\",\"data\":null,\"message\":\"no.additional.information\"}", sb.toString());
+    }
+    StringBuilder sb = new StringBuilder();
+    ReplyJson.PayloadWriter.DEFAULT.write(1.5f, sb);
+    assertEquals("1.5", sb.toString());
+  });
+  it("writes an unknown reply.", () -> {
+    StringBuilder sb = new StringBuilder();
+    ReplyJson.write(new Reply<>(), sb);
+    assertEquals("{\"status\":\"UNKNOWN\",\"message\":\"no.additional.information\"}", sb.toString());
+  });
+  it("escapes strings.", () -> {
+    StringBuilder sb = new StringBuilder();
+    ReplyJson.string("a\"b\\c\nd\te\u0001f\u2028", sb);
+    assertEquals("\"a\\\"b\\\\c\\nd\\te\\u0001f\\u2028\"", sb.toString());
+  });
+  it("writes payloads with a custom renderer.", () -> {
+    StringBuilder sb = new StringBuilder();
+    ReplyJson.write(Reply.okOf(new int[] {1, 2}), (data, out) -> out.append('[').append(data[0] + "," + data[1]).append(']'), sb);
+    assertTrue(sb.toString().contains("\"data\":[1,2]"));
+  });
+  it("writes UTF-8 encoded JSON to a stream.", () -> {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    String data = "h\u00e9llo \ud83d\ude00 \u20ac";
+    StringBuilder big = new StringBuilder();
+    for (int i = 0; i < 1000; i++) { big.append(data); }
+    ReplyJson.write(Reply.okOf(big.toString()), ReplyJson.PayloadWriter.DEFAULT, out);
+    StringBuilder expected = new StringBuilder();
+    ReplyJson.write(Reply.okOf(big.toString()), expected);
+    assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+  });
+  it("renders the same text representation as the reply's string form.", () -> {
+    Reply<Integer> r = new Reply<Integer>().bad(new IllegalStateException("oops")).warning("w0").warning("w1");
+    assertEquals(String.format("%s[stat: %s, msg: %s, err: %s, warn: %s]", "Reply", r.getStatus(), r.getMessage(),
+        r.getError(), "[w0, w1]"), r.toString());
+    assertEquals("Reply[stat: null, msg: null, err: null, warn: []]", new Reply<>().toString());
+    assertEquals(r.toString(), r.appendTo(new StringBuilder()).toString());
+  });
+  it("renders the public type name of replies.", () -> {
+    assertTrue(Reply.okOf(1).toString().startsWith("Reply[stat: OK"));
+    assertTrue(new Reply<Integer>().ok(1).freeze().toString().startsWith("Reply["));
+    ReplyCodec<String> codec = new ReplyCodec<>(ReplyCodec.PayloadCodec.STRING);
+    ByteBuffer buf = codec.encode(Reply.badOf(Check.MISSING_DATA), ByteBuffer.allocate(64));
+    buf.flip();
+    assertTrue(codec.decode(buf).toString().startsWith("Reply[stat: BAD"));
+    assertTrue(new ConcurrentReply<Integer>().toString().startsWith("ConcurrentReply["));
+  });
+}}
@@ -0,0 +1,98 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyLimiter;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyLimiterSpec { static {
+  it("raises its limit once per window of successful replies.", () -> {
+    ReplyLimiter l = new ReplyLimiter(1, 4);
+    l.call(() -> Reply.okOf(1));
+    assertEquals(2, l.getLimit());
+    for (int i = 0; i < 100; i++) { assertTrue(l.call(() -> Reply.okOf(1)).isOk()); }
+    assertEquals(3, l.getLimit());
+    assertEquals(0, l.getInFlight());
+  });
+  it("lowers its limit once per window of failed and slow replies.", () -> {
+    ReplyLimiter l = new ReplyLimiter(8, 2, 16, 0.5, 0.1, TimeUnit.MILLISECONDS.toNanos(1));
+    for (int i = 0; i < 7; i++) { l.call(() -> Reply.badOf(Check.GENERAL_ERROR)); }
+    assertEquals(8, l.getLimit());
+    l.call(() -> Reply.badOf(Check.GENERAL_ERROR));
+    assertEquals(4, l.getLimit());
+    for (int i = 0; i < 4; i++) {
+      l.call(() -> {
+        try { Thread.sleep(5); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        return Reply.okOf(1);
+      });
+    }
+    assertEquals(2, l.getLimit());
+    for (int i = 0; i < 2; i++) {
+      try {
+        l.call(() -> { throw new IllegalStateException(); });
+        fail();
+      } catch (IllegalStateException e) {
+        assertEquals(2, l.getLimit());
+        assertEquals(0, l.getInFlight());
+      }
+    }
+  });
+  it("lowers its limit once for a burst of concurrent failures.", () -> {
+    ReplyLimiter l = new ReplyLimiter(16, 1, 16, 0.5, 0.1, Long.MAX_VALUE);
+    CountDownLatch started = new CountDownLatch(16), release = new CountDownLatch(1);
+    List<Thread> ts = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      Thread t = new Thread(() -> l.call(() -> {
+        started.countDown();
+        try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        return Reply.badOf(Check.GENERAL_ERROR);
+      }));
+      ts.add(t);
+      t.start();
+    }
+    started.await();
+    release.countDown();
+    for (Thread t : ts) { t.join(); }
+    assertEquals(8, l.getLimit());
+  });
+  it("ignores failure ratios below its threshold.", () -> {
+    ReplyLimiter l = new ReplyLimiter(10, 1, 10, 0.5, 0.1, Long.MAX_VALUE);
+    for (int i = 0; i < 1_000; i++) {
+      int k = i;
+      l.call(() -> k % 20 == 0 ? Reply.badOf(Check.GENERAL_ERROR) : Reply.okOf(k));
+    }
+    assertEquals(10, l.getLimit());
+  });
+  it("rejects operations beyond its limit.", () -> {
+    ReplyLimiter l = new ReplyLimiter(1, 1);
+    CountDownLatch started = new CountDownLatch(1), done = new CountDownLatch(1);
+    Thread t = new Thread(() -> l.call(() -> {
+      started.countDown();
+      try { done.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+      return Reply.okOf(1);
+    }));
+    t.start();
+    started.await();
+    Reply<Integer> r = l.call(() -> Reply.okOf(2));
+    assertTrue(r.isBad());
+    assertEquals(Check.LIMIT_EXCEEDED, r.getError());
+    assertSame(r, l.call(() -> Reply.okOf(3)));
+    assertEquals(2, l.getRejected());
+    done.countDown();
+    t.join();
+    assertTrue(l.call(() -> Reply.okOf(4)).isOk());
+  });
+  it("does not accept invalid limits.", c -> c.expected(IllegalStateException.class), () -> {
+    new ReplyLimiter(4, 2);
+  });
+}}
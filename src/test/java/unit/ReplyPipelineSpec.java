@@ -0,0 +1,171 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyPipeline;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyPipelineSpec { static {
+  it("runs inputs through all stages, and drops failed items at their stage.", () -> {
+    ReplyPipeline<String, Integer> p = ReplyPipeline.<String>of(4)
+        .stage("parse", 2, s -> Reply.attempt(() -> Integer.parseInt(s)))
+        .stage("validate", 2, i -> i > 0 ? new Reply<Integer>().ok(i).warning("checked") : Reply.badOf(Check.OUT_OF_RANGE))
+        .batchStage("double", 2, 8, is -> is.stream().map(i -> Reply.okOf(i * 2)).collect(Collectors.toList()));
+    List<ReplyPipeline.Item<Integer>> out = new ArrayList<>();
+    try (ReplyPipeline.Results<Integer> rs = p.run(Arrays.asList("1", "x", "-3", "4", null).iterator())) {
+      rs.forEachRemaining(out::add);
+    }
+    out.sort((a, b) -> Long.compare(a.getIndex(), b.getIndex()));
+    assertEquals(5, out.size());
+    assertEquals("double", out.get(0).getStage());
+    assertEquals(Integer.valueOf(2), out.get(0).getReply().getData());
+    assertTrue(out.get(0).getReply().getWarnings().contains("checked"));
+    assertEquals("parse", out.get(1).getStage());
+    assertTrue(out.get(1).getReply().getError() instanceof NumberFormatException);
+    assertEquals("validate", out.get(2).getStage());
+    assertEquals(Check.OUT_OF_RANGE, out.get(2).getReply().getError());
+    assertEquals(Integer.valueOf(8), out.get(3).getReply().getData());
+    assertEquals(ReplyPipeline.STAGE_INPUT, out.get(4).getStage());
+    assertTrue(out.get(4).getReply().isBad());
+  });
+  it("processes many items with bounded queues.", () -> {
+    AtomicInteger batches = new AtomicInteger();
+    ReplyPipeline<Integer, Integer> p = ReplyPipeline.<Integer>of(2)
+        .stage("inc", 4, i -> Reply.okOf(i + 1))
+        .batchStage("sum", 3, 16, is -> {
+          batches.incrementAndGet();
+          return is.stream().map(Reply::okOf).collect(Collectors.toList());
+        });
+    Iterator<Integer> in = IntStream.range(0, 10_000).iterator();
+    long sum = 0, n = 0;
+    for (Iterator<ReplyPipeline.Item<Integer>> rs = p.run(in); rs.hasNext(); n++) {
+      sum += rs.next().getReply().getData();
+    }
+    assertEquals(10_000, n);
+    assertEquals(50_005_000L, sum);
+    assertTrue(batches.get() <= 10_000);
+  });
+  it("fails whole batches on invalid batch results.", () -> {
+    ReplyPipeline<Integer, Integer> p = ReplyPipeline.<Integer>of(8)
+        .batchStage("broken", 1, 8, is -> is.subList(0, 0).stream().map(Reply::okOf).collect(Collectors.toList()));
+    List<ReplyPipeline.Item<Integer>> out = new ArrayList<>();
+    p.run(Arrays.asList(1, 2, 3).iterator()).forEachRemaining(out::add);
+    assertEquals(3, out.size());
+    for (ReplyPipeline.Item<Integer> it : out) {
+      assertEquals("broken", it.getStage());
+      assertEquals(Check.CONDITION_NOT_SATISFIED, it.getReply().getError());
+    }
+  });
+  it("fails items on errors thrown by stages, and still terminates.", () -> {
+    ReplyPipeline<Integer, Integer> p = ReplyPipeline.<Integer>of(2)
+        .stage("check", 1, i -> {
+          if (i % 2 == 0) { throw new AssertionError("even"); }
+          return Reply.okOf(i);
+        })
+        .batchStage("broken", 1, 4, is -> { throw new StackOverflowError(); });
+    List<ReplyPipeline.Item<Integer>> out = new ArrayList<>();
+    p.run(IntStream.range(0, 20).iterator()).forEachRemaining(out::add);
+    assertEquals(20, out.size());
+    for (ReplyPipeline.Item<Integer> it : out) {
+      assertTrue(it.getReply().isBad());
+      if (it.getIndex() % 2 == 0) {
+        assertEquals("check", it.getStage());
+        assertTrue(it.getReply().getError() instanceof AssertionError);
+      } else {
+        assertEquals("broken", it.getStage());
+        assertTrue(it.getReply().getError() instanceof StackOverflowError);
+      }
+    }
+  });
+  it("passes inputs through without stages.", () -> {
+    List<ReplyPipeline.Item<String>> out = new ArrayList<>();
+    ReplyPipeline.<String>of(1).run(Arrays.asList("a", "b").iterator()).forEachRemaining(out::add);
+    assertEquals(2, out.size());
+    assertEquals("a", out.get(0).getReply().getData());
+  });
+  it("stops when closed early.", () -> {
+    AtomicInteger processed = new AtomicInteger();
+    ReplyPipeline<Integer, Integer> p = ReplyPipeline.<Integer>of(1)
+        .stage("count", 1, i -> Reply.okOf(processed.incrementAndGet()));
+    ReplyPipeline.Results<Integer> rs = p.run(IntStream.range(0, 1_000_000).iterator());
+    assertTrue(rs.hasNext());
+    rs.close();
+    assertFalse(rs.hasNext());
+    assertTrue(processed.get() < 1_000_000);
+  });
+  it("fails the run when a worker is interrupted, and releases all tasks.", () -> {
+    List<Thread> threads = new ArrayList<>();
+    Executor executor = r -> {
+      Thread t = new Thread(r);
+      synchronized (threads) { threads.add(t); }
+      t.start();
+    };
+    CountDownLatch release = new CountDownLatch(1);
+    Iterator<Integer> input = new Iterator<Integer>() {
+      int n;
+      @Override public boolean hasNext() {
+        if (n == 2) {
+          try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        return true;
+      }
+      @Override public Integer next() { return n++; }
+    };
+    ReplyPipeline.Results<Integer> rs = ReplyPipeline.<Integer>of(1)
+        .stage("inc", 1, i -> Reply.okOf(i + 1))
+        .run(input, executor);
+    assertEquals(Integer.valueOf(1), rs.next().getReply().getData());
+    assertEquals(Integer.valueOf(2), rs.next().getReply().getData());
+    synchronized (threads) { threads.get(1).interrupt(); }
+    release.countDown();
+    try {
+      while (rs.hasNext()) { rs.next(); }
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(e.getCause() instanceof InterruptedException);
+    }
+    synchronized (threads) {
+      for (Thread t : threads) {
+        t.join(5_000);
+        assertFalse(t.isAlive());
+      }
+    }
+  });
+  it("closes without leaking tasks when the closing thread is interrupted.", () -> {
+    List<Thread> threads = new ArrayList<>();
+    Executor executor = r -> {
+      Thread t = new Thread(r);
+      synchronized (threads) { threads.add(t); }
+      t.start();
+    };
+    ReplyPipeline.Results<Integer> rs = ReplyPipeline.<Integer>of(1)
+        .stage("inc", 2, i -> Reply.okOf(i + 1))
+        .run(IntStream.range(0, 1_000_000).iterator(), executor);
+    assertTrue(rs.hasNext());
+    Thread.currentThread().interrupt();
+    rs.close();
+    assertTrue(Thread.interrupted());
+    assertFalse(rs.hasNext());
+    synchronized (threads) {
+      for (Thread t : threads) {
+        t.join(5_000);
+        assertFalse(t.isAlive());
+      }
+    }
+  });
+}}
@@ -1,6 +1,8 @@
 package unit;
 
 import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.ConcurrentReply;
 import net.tribe7.reason.Reply;
 import org.junit.runner.RunWith;
 
@@ -81,6 +83,12 @@ public class ReplySpec { static {
       assertEquals(r.getStatus(), BAD);
       assertEquals(r.getMessage(), Reply.MESSAGE_DEFAULT);
     });
+    it("uses the error code as its message when failing with an error constant.", () -> {
+      Reply r = new Reply().bad(Check.MISSING_DATA);
+      assertTrue(r.isBad());
+      assertEquals(r.getError(), Check.MISSING_DATA);
+      assertEquals(r.getMessage(), Check.err(Check.MISSING_DATA));
+    });
     it("always has an OK status if a payload was assigned, and holds no additional error information.", () -> {
       Reply<Long> r = new Reply<Long>().ok(0L);
       assertEquals(r.getMessage(), Reply.MESSAGE_DEFAULT);
@@ -154,6 +162,30 @@ public class ReplySpec { static {
       assertFalse(r.isWarning());
       assertTrue(r.getWarnings().isEmpty());
     });
+    it("keeps warnings unique as they accumulate.", () -> {
+      Reply<Long> r = new Reply<Long>().ok(1L);
+      for (int k = 0; k < 2; k++) {
+        for (int i = 0; i < 20; i++) {
+          r.warning("w" + i);
+          assertTrue(r.isWarning());
+        }
+      }
+      assertEquals(20, r.getWarnings().size());
+      for (int i = 0; i < 20; i++) { assertTrue(r.getWarnings().contains("w" + i)); }
+    });
+    it("keeps warnings issued after they have been retrieved.", () -> {
+      Reply<Long> r = new Reply<Long>().ok(1L).warning("w0");
+      assertEquals(1, r.getWarnings().size());
+      r.warning("w1").warning("w0");
+      assertEquals(2, r.getWarnings().size());
+      r.getWarnings().clear();
+      assertFalse(r.isWarning());
+    });
+    it("includes its warnings when logged to the console.", () -> {
+      assertTrue(new Reply<Long>().ok(1L).toString().endsWith("warn: []]"));
+      assertTrue(new Reply<Long>().ok(1L).warning("w0").toString().endsWith("warn: [w0]]"));
+      assertTrue(new Reply<Long>().ok(1L).warning("w0").warning("w1").toString().endsWith("warn: [w0, w1]]"));
+    });
     it("can be logged to the console.", () -> {
       Reply<Integer> r = new Reply<Integer>().ok(123);
       String rs = r.toString();
@@ -161,4 +193,206 @@ public class ReplySpec { static {
       assertTrue(rs.length() > 0);
     });
   });
-}}
+  context("An immutable reply", () -> {
+    it("is successful when created with a payload.", () -> {
+      Reply<Long> r = Reply.okOf(1L);
+      assertTrue(r.isOk());
+      assertEquals(r.getData(), new Long(1L));
+      assertEquals(r.getMessage(), Reply.MESSAGE_DEFAULT);
+    });
+    it("fails when created with an invalid payload.", () -> {
+      Reply<Long> r = Reply.okOf(null);
+      assertTrue(r.isBad());
+      assertEquals(r.getMessage(), Reply.MESSAGE_INVALID_RESPONSE_DATA);
+    });
+    it("is preallocated for boolean payloads.", () -> {
+      assertSame(Reply.okOf(Boolean.TRUE), Reply.okOf(true));
+      assertSame(Reply.okOf(Boolean.FALSE), Reply.okOf(false));
+      assertTrue(Reply.okOf(true).getData());
+    });
+    it("is preallocated for error constants.", () -> {
+      Reply<Long> r = Reply.badOf(Check.MISSING_DATA);
+      assertSame(r, Reply.badOf(Check.MISSING_DATA, null));
+      assertNotSame(r, Reply.badOf(Check.GENERAL_ERROR));
+      assertTrue(r.isBad());
+      assertEquals(r.getError(), Check.MISSING_DATA);
+      assertEquals(r.getMessage(), Check.err(Check.MISSING_DATA));
+    });
+    it("keeps the message of a failure cause.", () -> {
+      assertEquals(Reply.badOf(new IllegalStateException("oops")).getMessage(), "oops");
+      assertEquals(Reply.badOf(new Object(), "oops").getMessage(), "oops");
+      assertEquals(Reply.badOf(Check.MISSING_DATA, "oops").getMessage(), "oops");
+    });
+    it("rejects changes to its outcome.", () -> {
+      Reply<Boolean> r = Reply.okOf(true);
+      for (Runnable op : new Runnable[] {
+          () -> r.ok(false), () -> r.bad(null), () -> r.bad(null, "oops"), () -> r.warning("w0")
+      }) {
+        try { op.run(); fail(); } catch (UnsupportedOperationException e) { assertTrue(r.isOk()); }
+      }
+      try { r.getWarnings().add("w0"); fail(); } catch (UnsupportedOperationException e) { assertFalse(r.isWarning()); }
+    });
+    it("can be created as a snapshot of a mutable reply.", () -> {
+      Reply<Long> m = new Reply<Long>().ok(1L).warning("w0").warning("w1");
+      Reply<Long> r = m.freeze();
+      m.warning("w2").bad(Check.GENERAL_ERROR);
+      assertSame(r, r.freeze());
+      assertTrue(r.isOk());
+      assertEquals(r.getData(), new Long(1L));
+      assertEquals(2, r.getWarnings().size());
+      assertTrue(r.getWarnings().contains("w1"));
+      assertFalse(r.getWarnings().contains("w2"));
+    });
+  });
+  context("A reply chain", () -> {
+    it("transforms successful payloads.", () -> {
+      Reply<Integer> r = new Reply<String>().ok("123").map(Integer::parseInt);
+      assertTrue(r.isOk());
+      assertEquals(r.getData(), new Integer(123));
+    });
+    it("fails when a transformation throws.", () -> {
+      Reply<Integer> r = new Reply<String>().ok("oops").map(Integer::parseInt);
+      assertTrue(r.isBad());
+      assertTrue(r.getError() instanceof NumberFormatException);
+    });
+    it("fails when a transformation produces no payload.", () -> {
+      Reply<Integer> r = Reply.okOf("123").map(s -> null);
+      assertTrue(r.isBad());
+      assertEquals(r.getMessage(), Reply.MESSAGE_INVALID_RESPONSE_DATA);
+    });
+    it("short-circuits failed replies, copying mutable ones only once.", () -> {
+      Reply<String> bad = new Reply<String>().bad(Check.MISSING_DATA);
+      Reply<Integer> first = bad.map(s -> { throw new AssertionError(); });
+      Reply<Integer> r = first
+          .<Integer>flatMap(s -> { throw new AssertionError(); })
+          .peek(s -> { throw new AssertionError(); });
+      assertSame(first, r);
+      assertEquals(Check.MISSING_DATA, r.getError());
+      Reply<String> unknown = new Reply<>();
+      Reply<Integer> u = unknown.map(String::length);
+      assertEquals(Reply.Status.UNKNOWN, u.getStatus());
+      assertSame(u, u.map(i -> i + 1));
+    });
+    it("chains reply-returning operations.", () -> {
+      Reply<Integer> r = Reply.okOf("12").flatMap(s -> new Reply<Integer>().ok(s.length()));
+      assertEquals(r.getData(), new Integer(2));
+      assertTrue(Reply.okOf("12").flatMap(s -> Reply.badOf(Check.GENERAL_ERROR)).isBad());
+      assertEquals(Reply.okOf("12").flatMap(s -> null).getError(), Check.MISSING_DATA);
+      assertTrue(Reply.okOf("12").flatMap(s -> { throw new IllegalStateException(); }).getError() instanceof IllegalStateException);
+    });
+    it("recovers failed replies.", () -> {
+      Reply<String> r = Reply.<String>badOf(Check.MISSING_DATA).recover(e -> Check.err((Enum<?>) e));
+      assertTrue(r.isOk());
+      assertEquals(r.getData(), Check.err(Check.MISSING_DATA));
+      Reply<String> ok = Reply.okOf("ok");
+      assertSame(ok, ok.recover(e -> "nope"));
+      assertTrue(Reply.badOf(Check.MISSING_DATA).recover(e -> { throw new IllegalStateException(); }).isBad());
+    });
+    it("applies side effects to successful payloads.", () -> {
+      StringBuilder sb = new StringBuilder();
+      Reply<String> ok = Reply.okOf("ok");
+      assertSame(ok, ok.peek(sb::append));
+      assertEquals("ok", sb.toString());
+      Reply<String> r = new Reply<String>().ok("ok").warning("w0").peek(s -> { throw new IllegalStateException(); });
+      assertTrue(r.isBad());
+      assertTrue(r.getWarnings().contains("w0"));
+    });
+    it("carries warnings across the chain.", () -> {
+      Reply<Integer> r = new Reply<String>().ok("12").warning("w0")
+          .map(Integer::parseInt)
+          .flatMap(i -> Reply.okOf(i + 1))
+          .flatMap(i -> new Reply<Integer>().ok(i).warning("w1"))
+          .flatMap(i -> Reply.<Integer>badOf(Check.GENERAL_ERROR))
+          .recover(e -> 0);
+      assertTrue(r.isOk());
+      assertEquals(2, r.getWarnings().size());
+      assertTrue(r.getWarnings().contains("w0"));
+      assertTrue(r.getWarnings().contains("w1"));
+      assertFalse(Reply.badOf(Check.GENERAL_ERROR).isWarning());
+    });
+    it("captures operation results without throwing.", () -> {
+      assertEquals(Reply.attempt(() -> 1).getData(), new Integer(1));
+      Reply<Integer> r = Reply.attempt(() -> { throw new java.io.IOException("oops"); });
+      assertTrue(r.isBad());
+      assertEquals(r.getMessage(), "oops");
+      assertTrue(Reply.attempt(() -> null).isBad());
+    });
+  });
+  describe("A reply with coded warnings", () -> {
+    it("renders warning constants as their codes.", () -> {
+      Reply<Integer> r = new Reply<Integer>().ok(1).warn(Notice.API_DEPRECATED);
+      assertTrue(r.isWarning());
+      assertTrue(r.hasWarning(Notice.API_DEPRECATED));
+      assertFalse(r.hasWarning(Notice.DEGRADED_MODE));
+      r.warn(Notice.DEGRADED_MODE).warn(Check.GENERAL_ERROR).warn(Notice.API_DEPRECATED);
+      assertTrue(r.hasWarning(Notice.DEGRADED_MODE));
+      assertTrue(r.hasWarning(Check.GENERAL_ERROR));
+      assertEquals(3, r.getWarnings().size());
+      assertTrue(r.getWarnings().contains("api.deprecated"));
+      assertTrue(r.getWarnings().contains("degraded.mode"));
+      assertTrue(r.getWarnings().contains("general.error"));
+      assertTrue(r.hasWarning(Notice.API_DEPRECATED));
+      assertEquals(r.getWarnings(), new java.util.HashSet<>(r.freeze().getWarnings()));
+    });
+    it("mixes warning constants and free-form warnings.", () -> {
+      Reply<Integer> r = new Reply<Integer>().warn(Notice.API_DEPRECATED).warning("w0").warn(Notice.DEGRADED_MODE);
+      assertEquals(3, r.getWarnings().size());
+      assertTrue(r.hasWarning(Notice.API_DEPRECATED));
+      assertTrue(r.hasWarning(Notice.DEGRADED_MODE));
+      assertTrue(r.getWarnings().contains("w0"));
+      assertTrue(new Reply<Integer>().warning("api.deprecated").hasWarning(Notice.API_DEPRECATED));
+      assertTrue(new Reply<Integer>().warn((Enum<?>) null).isWarning());
+    });
+    it("keeps copies of coded warnings independent.", () -> {
+      Reply<Integer> r = new Reply<Integer>().ok(1).warn(Notice.API_DEPRECATED).warn(Notice.DEGRADED_MODE);
+      Reply<Integer> frozen = r.freeze();
+      r.warn(Check.MISSING_DATA).warn(Big.N1);
+      assertEquals(2, frozen.getWarnings().size());
+      assertEquals(4, r.getWarnings().size());
+    });
+    it("stores constants beyond the bitmask range as codes.", () -> {
+      Reply<Integer> r = new Reply<Integer>().warn(Big.N69).warn(Big.N0);
+      assertTrue(r.hasWarning(Big.N69));
+      assertTrue(r.hasWarning(Big.N0));
+      assertEquals(2, r.getWarnings().size());
+    });
+    it("does not alias or modify replies through chained operations.", () -> {
+      Reply<Integer> failed = new Reply<Integer>().bad(Check.MISSING_DATA);
+      Reply<String> mapped = failed.map(String::valueOf);
+      assertNotSame(failed, mapped);
+      try { mapped.ok("x"); fail(); } catch (UnsupportedOperationException e) { assertTrue(failed.isBad()); }
+      Reply<Integer> frozen = Reply.<Integer>badOf(Check.MISSING_DATA);
+      assertSame(frozen, frozen.map(i -> i + 1));
+      Reply<Integer> shared = new Reply<Integer>().ok(2);
+      Reply<Integer> chained = new Reply<Integer>().ok(1).warning("w0").flatMap(i -> shared);
+      assertNotSame(shared, chained);
+      assertTrue(chained.getWarnings().contains("w0"));
+      assertFalse(shared.isWarning());
+      assertSame(shared, Reply.okOf(1).flatMap(i -> shared));
+    });
+    it("carries warning constants through chained operations.", () -> {
+      Reply<Integer> r = new Reply<Integer>().ok(1).warn(Notice.API_DEPRECATED);
+      Reply<Integer> m = r.map(i -> i + 1);
+      assertTrue(m.hasWarning(Notice.API_DEPRECATED));
+      Reply<Integer> f = m.flatMap(i -> new Reply<Integer>().ok(i).warn(Check.GENERAL_ERROR).warning("w0"));
+      assertTrue(f.hasWarning(Notice.API_DEPRECATED));
+      assertTrue(f.hasWarning(Check.GENERAL_ERROR));
+      assertEquals(3, f.getWarnings().size());
+      r.warn(Notice.DEGRADED_MODE);
+      assertFalse(m.hasWarning(Notice.DEGRADED_MODE));
+      Reply<Integer> b = Reply.okOf(1).flatMap(i -> new Reply<Integer>().ok(i).warn(Notice.DEGRADED_MODE))
+          .flatMap(i -> new ConcurrentReply<Integer>().ok(i).warn(Notice.API_DEPRECATED));
+      assertTrue(b.hasWarning(Notice.API_DEPRECATED));
+      assertTrue(b.hasWarning(Notice.DEGRADED_MODE));
+    });
+    it("accepts coded warnings in concurrent replies.", () -> {
+      Reply<Integer> r = new ConcurrentReply<Integer>().warn(Notice.API_DEPRECATED);
+      assertTrue(r.hasWarning(Notice.API_DEPRECATED));
+      assertTrue(r.getWarnings().contains("api.deprecated"));
+    });
+  });
+}
+
+  enum Notice { API_DEPRECATED, DEGRADED_MODE }
+  enum Big { N0, N1, N2, N3, N4, N5, N6, N7, N8, N9, N10, N11, N12, N13, N14, N15, N16, N17, N18, N19, N20, N21, N22, N23, N24, N25, N26, N27, N28, N29, N30, N31, N32, N33, N34, N35, N36, N37, N38, N39, N40, N41, N42, N43, N44, N45, N46, N47, N48, N49, N50, N51, N52, N53, N54, N55, N56, N57, N58, N59, N60, N61, N62, N63, N64, N65, N66, N67, N68, N69 }
+}
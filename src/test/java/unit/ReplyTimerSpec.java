@@ -0,0 +1,71 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.ReplyHistogram;
+import net.tribe7.reason.ReplyTimer;
+import org.junit.runner.RunWith;
+
+import java.util.stream.IntStream;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ReplyTimerSpec { static {
+  describe("A reply histogram", () -> {
+    it("maps values to buckets within its resolution.", () -> {
+      for (long v : new long[] {0, 1, 31, 32, 63, 64, 1000, 123_456_789L, Long.MAX_VALUE}) {
+        int i = ReplyHistogram.indexOf(v);
+        assertTrue(ReplyHistogram.lowestOf(i) <= v && v <= ReplyHistogram.highestOf(i));
+        assertTrue(ReplyHistogram.highestOf(i) - ReplyHistogram.lowestOf(i) <= v / ReplyHistogram.SUB_BUCKETS);
+      }
+      assertEquals(ReplyHistogram.highestOf(ReplyHistogram.indexOf(1000)) + 1,
+          ReplyHistogram.lowestOf(ReplyHistogram.indexOf(1000) + 1));
+    });
+    it("reports percentiles.", () -> {
+      ReplyHistogram h = new ReplyHistogram();
+      IntStream.rangeClosed(1, 10_000).parallel().forEach(h::record);
+      ReplyHistogram.Snapshot s = h.snapshot();
+      assertEquals(10_000, s.getCount());
+      assertEquals(10_000, s.getMax());
+      assertEquals(5000.5, s.getMean(), 0.001);
+      assertEquals(5000, s.getValueAt(50), 5000 / ReplyHistogram.SUB_BUCKETS);
+      assertEquals(9900, s.getValueAt(99), 9900 / ReplyHistogram.SUB_BUCKETS);
+      assertEquals(10_000, s.getValueAt(100));
+      assertEquals(1, s.getValueAt(0));
+    });
+    it("resets on request.", () -> {
+      ReplyHistogram h = new ReplyHistogram();
+      h.record(-5);
+      h.record(100);
+      ReplyHistogram.Snapshot s = h.snapshotAndReset();
+      assertEquals(2, s.getCount());
+      assertEquals(1, s.getCount(0));
+      assertEquals(0, h.snapshot().getCount());
+      assertEquals(0, h.snapshot().getValueAt(99));
+    });
+  });
+  describe("A reply timer", () -> {
+    it("records latencies by reply outcome.", () -> {
+      ReplyTimer t = ReplyTimer.of("spec.records");
+      assertSame(t, ReplyTimer.of("spec.records"));
+      assertSame(t, ReplyTimer.timers().get("spec.records"));
+      t.time(() -> Reply.okOf(1));
+      t.stop(t.start(), Reply.badOf(Check.MISSING_DATA));
+      t.stop(t.start(), null);
+      assertEquals(1, t.getOk().snapshot().getCount());
+      assertEquals(2, t.getBad().snapshot().getCount());
+    });
+    it("records operation failures.", () -> {
+      ReplyTimer t = ReplyTimer.of("spec.fails");
+      try {
+        t.time(() -> { throw new IllegalStateException(); });
+        fail();
+      } catch (IllegalStateException e) {
+        assertEquals(1, t.getBad().snapshot().getCount());
+      }
+    });
+  });
+}}
@@ -0,0 +1,54 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.ErrorCodes;
+import net.tribe7.reason.Reply;
+import net.tribe7.reason.Validator;
+import net.tribe7.reason.Violations;
+import org.junit.runner.RunWith;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class ValidatorSpec { static {
+  it("passes when all rules pass.", () -> {
+    Validator v = new Validator()
+        .notNull("x", MyErrors.OOPS_I_FLOPPED)
+        .isTrue(true, null)
+        .inRange(1, 0, 1, null)
+        .inRange(0.5, 0, 1, null);
+    assertTrue(v.isValid());
+    assertEquals(0, v.violations().size());
+    assertSame(Reply.okOf(true), v.reply(Boolean.TRUE));
+  });
+  it("accumulates all failed rules, in evaluation order.", () -> {
+    Validator v = new Validator();
+    for (int i = 0; i < 10; i++) {
+      v.notNull(null, null).isTrue(false, MyErrors.OOPS_I_FLOPPED).inRange(2, 0, 1, null).inRange(Double.NaN, 0, 1, null);
+    }
+    assertFalse(v.isValid());
+    assertEquals(40, v.failureCount());
+    Violations vs = v.violations();
+    assertSame(Check.MISSING_DATA, vs.getError(0));
+    assertSame(MyErrors.OOPS_I_FLOPPED, vs.getError(1));
+    assertEquals(ErrorCodes.id(Check.OUT_OF_RANGE), vs.getId(2));
+    assertEquals(Check.err(Check.OUT_OF_RANGE), vs.getCode(3));
+    assertTrue(vs.contains(MyErrors.OOPS_I_FLOPPED));
+    assertFalse(vs.contains(Check.GENERAL_ERROR));
+  });
+  it("fails a reply with all failed rules.", () -> {
+    Reply<String> r = new Validator().notNull(null, null).isTrue(false, MyErrors.OOPS_I_FLOPPED).reply("x");
+    assertTrue(r.isBad());
+    assertTrue(r.getError() instanceof Violations);
+    assertEquals(2, ((Violations) r.getError()).size());
+    assertEquals("missing.data, oops.i.flopped", r.getMessage());
+  });
+  it("can be reused.", () -> {
+    Validator v = new Validator().isTrue(false, null);
+    assertFalse(v.isValid());
+    assertTrue(v.reset().isTrue(true, null).isValid());
+    assertEquals(new Reply<>().bad(null).getStatus(), v.reset().isTrue(false, null).reply(1).getStatus());
+  });
+}}
@@ -0,0 +1,42 @@
+package unit;
+
+import j8spec.junit.J8SpecRunner;
+import net.tribe7.reason.Bad;
+import net.tribe7.reason.Check;
+import net.tribe7.reason.Ok;
+import net.tribe7.reason.Outcome;
+import net.tribe7.reason.Reply;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static j8spec.J8Spec.*;
+import static org.junit.Assert.*;
+
+@RunWith(J8SpecRunner.class)
+public class OutcomeRecordSpec { static {
+  it("loads outcomes as records of a sealed interface.", () -> {
+    assertTrue(Outcome.class.isSealed());
+    assertEquals(2, Outcome.class.getPermittedSubclasses().length);
+    assertTrue(Ok.class.isRecord());
+    assertTrue(Bad.class.isRecord());
+  });
+  it("matches outcomes with instanceof patterns.", () -> {
+    Outcome<Integer> o = new Reply<Integer>().ok(1).warning("w0").outcome();
+    if (o instanceof Ok<Integer> ok) {
+      assertEquals(Integer.valueOf(1), ok.data());
+      assertEquals(List.of("w0"), ok.warnings());
+    } else {
+      fail();
+    }
+    Outcome<Integer> b = Reply.<Integer>badOf(Check.MISSING_DATA).outcome();
+    assertTrue(b instanceof Bad<Integer> bad && bad.error() == Check.MISSING_DATA);
+  });
+  it("converts records back to replies.", () -> {
+    Reply<Integer> r = Reply.of(new Bad<Integer>(Check.OUT_OF_RANGE, "too large", List.of("w0")));
+    assertTrue(r.isBad());
+    assertEquals("too large", r.getMessage());
+    assertTrue(r.getWarnings().contains("w0"));
+    assertEquals(new Ok<>(1, null), Reply.okOf(1).outcome());
+  });
+}}